@@ -31,6 +31,7 @@ public class Main {
 
     // 1. Load app config
     String configPath = args.length > 0 ? args[0] : "config.yml";
+    boolean backfill = args.length > 1 && "backfill".equals(args[1]);
     LOG.info("Loading application configuration from: {}", configPath);
     AppConfig config = ConfigLoader.loadConfig(configPath);
     LOG.info("Application configuration loaded successfully.");
@@ -42,6 +43,17 @@ public class Main {
     MetricsManager metricsManager = new MetricsManager(config, tailerManager);
 
     // 3. Start components
+    if (backfill) {
+      // One-shot mode: process the existing content of the files, then keep serving the result.
+      LOG.info("Starting MetricsManager...");
+      metricsManager.start();
+      LOG.info("MetricsManager started.");
+      LOG.info("Starting backfill...");
+      tailerManager.backfill();
+      LOG.info("Backfill finished.");
+      return;
+    }
+
     LOG.info("Starting LogTailerManager...");
     tailerManager.start();
     LOG.info("LogTailerManager started.");
@@ -23,6 +23,9 @@ public class AppConfig {
   @JsonProperty("path")
   private String path;
 
+  @JsonProperty("paths")
+  private List<String> paths;
+
   private Map<String, String> patterns;
   private List<MetricConfig> metrics;
 
@@ -30,7 +33,7 @@ public class AppConfig {
   private int port = 9090;
 
   @JsonProperty("file_scan_interval_seconds")
-  private int fileScanIntervalSeconds = 10; // Default to 10 seconds
+  private int fileScanIntervalSeconds = 300; // Default to 300 seconds
 
   @JsonProperty("file_inactivity_timeout_seconds")
   private int fileInactivityTimeoutSeconds = 3600; // Default to 3600 seconds (1 hour)
@@ -38,6 +41,38 @@ public class AppConfig {
   @JsonProperty("tail_from_end")
   private boolean tailFromEnd = false;
 
+  @JsonProperty("checkpoint_path")
+  private String checkpointPath;
+
+  @JsonProperty("checkpoint_interval_seconds")
+  private int checkpointIntervalSeconds = 5; // Default to 5 seconds
+
+  @JsonProperty("reader_threads")
+  private int readerThreads = 0; // Default to 0, meaning one thread per available core
+
+  @JsonProperty("catch_up_compressed")
+  private boolean catchUpCompressed = false; // Default to false
+
+  @JsonProperty("catch_up_threads")
+  private int catchUpThreads = 1; // Default to 1 thread
+
+  private PipelineConfig pipeline;
+
+  @JsonProperty("regex_engine")
+  private String regexEngine = "jdk"; // Default to java.util.regex
+
+  @JsonProperty("match_timeout_millis")
+  private long matchTimeoutMillis = 0; // 0 means no time budget
+
+  @JsonProperty("match_timeout_sample_path")
+  private String matchTimeoutSamplePath; // Lines that timed out are not sampled if not set
+
+  @JsonProperty("parse_cache_size")
+  private int parseCacheSize = 0; // 0 disables the cache
+
+  @JsonProperty("parse_cache_max_line_length")
+  private int parseCacheMaxLineLength = 1024;
+
   // Getters and Setters
   public String getPath() {
     return path;
@@ -47,6 +82,14 @@ public class AppConfig {
     this.path = path;
   }
 
+  public List<String> getPaths() {
+    return paths;
+  }
+
+  public void setPaths(List<String> paths) {
+    this.paths = paths;
+  }
+
   public Map<String, String> getPatterns() {
     return patterns;
   }
@@ -94,4 +137,92 @@ public class AppConfig {
   public void setTailFromEnd(boolean tailFromEnd) {
     this.tailFromEnd = tailFromEnd;
   }
+
+  public String getCheckpointPath() {
+    return checkpointPath;
+  }
+
+  public void setCheckpointPath(String checkpointPath) {
+    this.checkpointPath = checkpointPath;
+  }
+
+  public int getCheckpointIntervalSeconds() {
+    return checkpointIntervalSeconds;
+  }
+
+  public void setCheckpointIntervalSeconds(int checkpointIntervalSeconds) {
+    this.checkpointIntervalSeconds = checkpointIntervalSeconds;
+  }
+
+  public int getReaderThreads() {
+    return readerThreads;
+  }
+
+  public void setReaderThreads(int readerThreads) {
+    this.readerThreads = readerThreads;
+  }
+
+  public boolean isCatchUpCompressed() {
+    return catchUpCompressed;
+  }
+
+  public void setCatchUpCompressed(boolean catchUpCompressed) {
+    this.catchUpCompressed = catchUpCompressed;
+  }
+
+  public int getCatchUpThreads() {
+    return catchUpThreads;
+  }
+
+  public void setCatchUpThreads(int catchUpThreads) {
+    this.catchUpThreads = catchUpThreads;
+  }
+
+  public PipelineConfig getPipeline() {
+    return pipeline;
+  }
+
+  public void setPipeline(PipelineConfig pipeline) {
+    this.pipeline = pipeline;
+  }
+
+  public String getRegexEngine() {
+    return regexEngine;
+  }
+
+  public void setRegexEngine(String regexEngine) {
+    this.regexEngine = regexEngine;
+  }
+
+  public long getMatchTimeoutMillis() {
+    return matchTimeoutMillis;
+  }
+
+  public void setMatchTimeoutMillis(long matchTimeoutMillis) {
+    this.matchTimeoutMillis = matchTimeoutMillis;
+  }
+
+  public String getMatchTimeoutSamplePath() {
+    return matchTimeoutSamplePath;
+  }
+
+  public void setMatchTimeoutSamplePath(String matchTimeoutSamplePath) {
+    this.matchTimeoutSamplePath = matchTimeoutSamplePath;
+  }
+
+  public int getParseCacheSize() {
+    return parseCacheSize;
+  }
+
+  public void setParseCacheSize(int parseCacheSize) {
+    this.parseCacheSize = parseCacheSize;
+  }
+
+  public int getParseCacheMaxLineLength() {
+    return parseCacheMaxLineLength;
+  }
+
+  public void setParseCacheMaxLineLength(int parseCacheMaxLineLength) {
+    this.parseCacheMaxLineLength = parseCacheMaxLineLength;
+  }
 }
@@ -16,6 +16,8 @@
 package org.logex.exporter.config;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+import java.util.Map;
 
 public class LabelConfig {
   private String name;
@@ -32,6 +34,26 @@ public class LabelConfig {
 
   private String script;
 
+  @JsonProperty("memo_size")
+  private Integer memoSize;
+
+  private String delimiter;
+
+  @JsonProperty("max_length")
+  private Integer maxLength;
+
+  private List<Double> buckets;
+
+  @JsonProperty("hash_modulo")
+  private Integer hashModulo;
+
+  private Map<String, String> table;
+
+  @JsonProperty("lookup_default")
+  private String lookupDefault;
+
+  private List<LabelConfig> steps;
+
   // Getters and Setters
   public String getName() {
     return name;
@@ -88,4 +110,68 @@ public class LabelConfig {
   public void setScript(String script) {
     this.script = script;
   }
+
+  public Integer getMemoSize() {
+    return memoSize;
+  }
+
+  public void setMemoSize(Integer memoSize) {
+    this.memoSize = memoSize;
+  }
+
+  public String getDelimiter() {
+    return delimiter;
+  }
+
+  public void setDelimiter(String delimiter) {
+    this.delimiter = delimiter;
+  }
+
+  public Integer getMaxLength() {
+    return maxLength;
+  }
+
+  public void setMaxLength(Integer maxLength) {
+    this.maxLength = maxLength;
+  }
+
+  public List<Double> getBuckets() {
+    return buckets;
+  }
+
+  public void setBuckets(List<Double> buckets) {
+    this.buckets = buckets;
+  }
+
+  public Integer getHashModulo() {
+    return hashModulo;
+  }
+
+  public void setHashModulo(Integer hashModulo) {
+    this.hashModulo = hashModulo;
+  }
+
+  public Map<String, String> getTable() {
+    return table;
+  }
+
+  public void setTable(Map<String, String> table) {
+    this.table = table;
+  }
+
+  public String getLookupDefault() {
+    return lookupDefault;
+  }
+
+  public void setLookupDefault(String lookupDefault) {
+    this.lookupDefault = lookupDefault;
+  }
+
+  public List<LabelConfig> getSteps() {
+    return steps;
+  }
+
+  public void setSteps(List<LabelConfig> steps) {
+    this.steps = steps;
+  }
 }
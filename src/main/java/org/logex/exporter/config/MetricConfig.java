@@ -23,8 +23,15 @@ public class MetricConfig {
   private String name;
   private String help;
   private String type;
+  private String format; // grok if null; match is required by grok and dissect
   private String match;
 
+  @JsonProperty("regex_engine")
+  private String regexEngine; // Defaults to the global regex_engine
+
+  @JsonProperty("exclusive_group")
+  private String exclusiveGroup; // The metric's pattern is not exclusive if null
+
   @JsonProperty("value_field")
   private String valueField;
 
@@ -65,6 +72,14 @@ public class MetricConfig {
     this.type = type;
   }
 
+  public String getFormat() {
+    return format;
+  }
+
+  public void setFormat(String format) {
+    this.format = format;
+  }
+
   public String getMatch() {
     return match;
   }
@@ -73,6 +88,22 @@ public class MetricConfig {
     this.match = match;
   }
 
+  public String getRegexEngine() {
+    return regexEngine;
+  }
+
+  public void setRegexEngine(String regexEngine) {
+    this.regexEngine = regexEngine;
+  }
+
+  public String getExclusiveGroup() {
+    return exclusiveGroup;
+  }
+
+  public void setExclusiveGroup(String exclusiveGroup) {
+    this.exclusiveGroup = exclusiveGroup;
+  }
+
   public String getValueField() {
     return valueField;
   }
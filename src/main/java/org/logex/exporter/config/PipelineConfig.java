@@ -0,0 +1,47 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.config;
+
+public class PipelineConfig {
+  private boolean enabled = false;
+  private StageConfig parse = new StageConfig();
+  private StageConfig aggregate = new StageConfig();
+
+  // Getters and Setters
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public StageConfig getParse() {
+    return parse;
+  }
+
+  public void setParse(StageConfig parse) {
+    this.parse = parse;
+  }
+
+  public StageConfig getAggregate() {
+    return aggregate;
+  }
+
+  public void setAggregate(StageConfig aggregate) {
+    this.aggregate = aggregate;
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class StageConfig {
+  private int workers = 0; // Default to 0, meaning one worker per available core
+
+  @JsonProperty("queue_capacity")
+  private int queueCapacity = 1024; // Default to 1024 batches per worker
+
+  private String policy = "block";
+
+  @JsonProperty("sample_ratio")
+  private double sampleRatio = 0.1;
+
+  // Getters and Setters
+  public int getWorkers() {
+    return workers;
+  }
+
+  public void setWorkers(int workers) {
+    this.workers = workers;
+  }
+
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  public void setQueueCapacity(int queueCapacity) {
+    this.queueCapacity = queueCapacity;
+  }
+
+  public String getPolicy() {
+    return policy;
+  }
+
+  public void setPolicy(String policy) {
+    this.policy = policy;
+  }
+
+  public double getSampleRatio() {
+    return sampleRatio;
+  }
+
+  public void setSampleRatio(double sampleRatio) {
+    this.sampleRatio = sampleRatio;
+  }
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32C;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the read offset of every tailed file so that a restart resumes where the previous run
+ * stopped. Updates only touch memory; {@link #flush()} persists them in one batch, and is meant to
+ * be called on an interval. Without a file, checkpoints are kept in memory only.
+ *
+ * <p>When another file takes over a path, the checkpoint of the previous file is retired rather
+ * than overwritten, so that its content can still be matched once it was renamed or compressed.
+ */
+public class CheckpointStore {
+
+  private static final Logger LOG = LoggerFactory.getLogger(CheckpointStore.class);
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private final Path file;
+  private final Map<String, Checkpoint> checkpoints = new ConcurrentHashMap<>();
+  private final AtomicBoolean dirty = new AtomicBoolean();
+
+  public CheckpointStore(Path file) {
+    this.file = file;
+    if (file != null && Files.exists(file)) {
+      try {
+        List<Checkpoint> loaded =
+            MAPPER.readValue(file.toFile(), new TypeReference<List<Checkpoint>>() {});
+        loaded.forEach(checkpoint -> checkpoints.put(key(checkpoint), checkpoint));
+        LOG.info("Loaded {} checkpoints from {}", checkpoints.size(), file);
+      } catch (IOException e) {
+        LOG.error("Error loading checkpoints from {}: {}", file, e.getMessage());
+      }
+    }
+  }
+
+  public Checkpoint get(String path) {
+    return checkpoints.get(path);
+  }
+
+  /**
+   * Finds the checkpoint to resume the opened file from: the one taken at its path, or one taken at
+   * another path before the file was renamed. Either must match its inode and fingerprint.
+   */
+  public Checkpoint find(String path, FileIdentity identity, FileChannel channel)
+      throws IOException {
+    Checkpoint own = checkpoints.get(path);
+    if (own != null
+        && own.getIdentity().sameInode(identity)
+        && own.getIdentity().matches(channel)) {
+      return own;
+    }
+    if (identity.getInode() == 0) {
+      // Without inodes, a renamed file cannot be told apart from another one.
+      return null;
+    }
+    for (Checkpoint checkpoint : checkpoints.values()) {
+      if (checkpoint != own
+          && checkpoint.getIdentity().sameInode(identity)
+          && checkpoint.getIdentity().matches(channel)) {
+        return checkpoint;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Finds the checkpoint of the file whose content starts with the given bytes, such as a file that
+   * was compressed after rotation. If several match, the most advanced one is returned.
+   */
+  public Checkpoint findByContent(byte[] head, int length) {
+    Checkpoint found = null;
+    for (Checkpoint checkpoint : checkpoints.values()) {
+      int fingerprintLength = checkpoint.getFingerprintLength();
+      if (fingerprintLength == 0 || fingerprintLength > length) {
+        continue;
+      }
+      CRC32C crc = new CRC32C();
+      crc.update(head, 0, fingerprintLength);
+      if (crc.getValue() == checkpoint.getFingerprint()
+          && (found == null || checkpoint.getOffset() > found.getOffset())) {
+        found = checkpoint;
+      }
+    }
+    return found;
+  }
+
+  /** Records that the file at {@code path} has been handled up to {@code offset}. */
+  public void update(String path, FileIdentity identity, long offset) {
+    update(path, path, identity, offset);
+  }
+
+  /**
+   * Records that the file at {@code path}, which was first tailed at {@code origin}, has been
+   * handled up to {@code offset}.
+   */
+  public void update(String path, String origin, FileIdentity identity, long offset) {
+    Checkpoint previous = checkpoints.get(path);
+    if (previous != null
+        && identity.getInode() != 0
+        && !previous.getIdentity().sameInode(identity)) {
+      previous.setRetired(true);
+      checkpoints.put(key(previous), previous);
+    }
+    Checkpoint checkpoint = new Checkpoint();
+    checkpoint.setPath(path);
+    checkpoint.setOrigin(origin);
+    checkpoint.setDevice(identity.getDevice());
+    checkpoint.setInode(identity.getInode());
+    checkpoint.setFingerprint(identity.getFingerprint());
+    checkpoint.setFingerprintLength(identity.getFingerprintLength());
+    checkpoint.setOffset(offset);
+    checkpoint.setUpdatedAt(System.currentTimeMillis());
+    checkpoints.put(path, checkpoint);
+    dirty.set(true);
+  }
+
+  /**
+   * Drops the checkpoints that have not been updated for the given time and either are retired or
+   * belong to a file that no longer exists.
+   */
+  public void prune(long maxAgeMillis) {
+    long threshold = System.currentTimeMillis() - maxAgeMillis;
+    if (checkpoints
+        .values()
+        .removeIf(
+            checkpoint ->
+                checkpoint.getUpdatedAt() < threshold
+                    && (checkpoint.isRetired() || !Files.exists(Path.of(checkpoint.getPath()))))) {
+      dirty.set(true);
+    }
+  }
+
+  private static String key(Checkpoint checkpoint) {
+    return checkpoint.isRetired()
+        ? checkpoint.getPath() + "@" + checkpoint.getDevice() + ":" + checkpoint.getInode()
+        : checkpoint.getPath();
+  }
+
+  /** Atomically replaces the checkpoint file with the current offsets, if any changed. */
+  public void flush() {
+    if (file == null || !dirty.getAndSet(false)) {
+      return;
+    }
+    Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+    try {
+      byte[] content = MAPPER.writeValueAsBytes(new ArrayList<>(checkpoints.values()));
+      if (file.getParent() != null) {
+        Files.createDirectories(file.getParent());
+      }
+      try (FileChannel channel =
+          FileChannel.open(
+              temp,
+              StandardOpenOption.CREATE,
+              StandardOpenOption.WRITE,
+              StandardOpenOption.TRUNCATE_EXISTING)) {
+        ByteBuffer buffer = ByteBuffer.wrap(content);
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+        channel.force(true);
+      }
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      dirty.set(true);
+      LOG.error("Error writing checkpoints to {}: {}", file, e.getMessage());
+    }
+  }
+
+  /** The persisted read position of one file. */
+  public static class Checkpoint {
+    private String path;
+    private String origin;
+    private long device;
+    private long inode;
+    private long fingerprint;
+
+    @JsonProperty("fingerprint_length")
+    private int fingerprintLength;
+
+    private long offset;
+
+    @JsonProperty("updated_at")
+    private long updatedAt;
+
+    private boolean retired;
+
+    @JsonIgnore
+    public FileIdentity getIdentity() {
+      return new FileIdentity(device, inode, fingerprint, fingerprintLength);
+    }
+
+    // Getters and Setters
+    public String getPath() {
+      return path;
+    }
+
+    public void setPath(String path) {
+      this.path = path;
+    }
+
+    public String getOrigin() {
+      return origin;
+    }
+
+    public void setOrigin(String origin) {
+      this.origin = origin;
+    }
+
+    public long getDevice() {
+      return device;
+    }
+
+    public void setDevice(long device) {
+      this.device = device;
+    }
+
+    public long getInode() {
+      return inode;
+    }
+
+    public void setInode(long inode) {
+      this.inode = inode;
+    }
+
+    public long getFingerprint() {
+      return fingerprint;
+    }
+
+    public void setFingerprint(long fingerprint) {
+      this.fingerprint = fingerprint;
+    }
+
+    public int getFingerprintLength() {
+      return fingerprintLength;
+    }
+
+    public void setFingerprintLength(int fingerprintLength) {
+      this.fingerprintLength = fingerprintLength;
+    }
+
+    public long getOffset() {
+      return offset;
+    }
+
+    public void setOffset(long offset) {
+      this.offset = offset;
+    }
+
+    public long getUpdatedAt() {
+      return updatedAt;
+    }
+
+    public void setUpdatedAt(long updatedAt) {
+      this.updatedAt = updatedAt;
+    }
+
+    public boolean isRetired() {
+      return retired;
+    }
+
+    public void setRetired(boolean retired) {
+      this.retired = retired;
+    }
+  }
+}
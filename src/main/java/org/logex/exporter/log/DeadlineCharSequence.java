@@ -0,0 +1,65 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+/**
+ * A view over a line that fails the match reading it once a deadline has passed, by throwing {@link
+ * MatchTimeoutException} from {@link #charAt}. Regex engines read their input through it character
+ * by character, so that even a runaway backtracking match is abandoned in time. The clock is only
+ * read every {@value #CHECK_INTERVAL} characters.
+ */
+final class DeadlineCharSequence implements CharSequence {
+
+  static final int CHECK_INTERVAL = 1024;
+
+  private CharSequence line;
+  private long deadline;
+  private int reads;
+
+  /** Points this view at the line, to be read until the given {@link System#nanoTime()}. */
+  DeadlineCharSequence reset(CharSequence line, long deadline) {
+    this.line = line;
+    this.deadline = deadline;
+    this.reads = 0;
+    return this;
+  }
+
+  @Override
+  public int length() {
+    return line.length();
+  }
+
+  @Override
+  public char charAt(int index) {
+    if (++reads == CHECK_INTERVAL) {
+      reads = 0;
+      if (System.nanoTime() - deadline > 0) {
+        throw MatchTimeoutException.INSTANCE;
+      }
+    }
+    return line.charAt(index);
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    return line.subSequence(start, end);
+  }
+
+  @Override
+  public String toString() {
+    return line.toString();
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parses lines by splitting them on the literal delimiters of a dissect pattern, such as {@code
+ * %{ts} [%{thread}] %{level} - %{msg}}, without regular expressions. Every key takes the text up to
+ * the next occurrence of the delimiter that follows it, and the last key the rest of the line. A
+ * line matches if it starts with the text before the first key and contains every delimiter.
+ *
+ * <p>{@code %{}} and {@code %{?name}} skip their text, and {@code %{name->}} also skips the
+ * repetitions of its delimiter, such as the spaces padding a column.
+ */
+public class DissectLineParser implements LineParser {
+
+  private final EventSchema schema;
+  private final String prefix;
+  private final Key[] keys;
+  private volatile int[] slots;
+
+  public DissectLineParser(String pattern) {
+    this(pattern, new EventSchema());
+  }
+
+  public DissectLineParser(String pattern, EventSchema schema) {
+    this.schema = schema;
+    int start = pattern == null ? -1 : pattern.indexOf("%{");
+    if (start < 0) {
+      throw new IllegalArgumentException("Dissect pattern has no key: " + pattern);
+    }
+    this.prefix = pattern.substring(0, start);
+    List<Key> parsed = new ArrayList<>();
+    while (start >= 0) {
+      int end = pattern.indexOf('}', start);
+      if (end < 0) {
+        throw new IllegalArgumentException("Unclosed key in dissect pattern: " + pattern);
+      }
+      String name = pattern.substring(start + 2, end);
+      boolean padded = name.endsWith("->");
+      if (padded) {
+        name = name.substring(0, name.length() - 2);
+      }
+      if (name.startsWith("?")) {
+        name = "";
+      }
+      int next = pattern.indexOf("%{", end);
+      String delimiter = pattern.substring(end + 1, next < 0 ? pattern.length() : next);
+      if (delimiter.isEmpty() && next >= 0) {
+        throw new IllegalArgumentException(
+            "Keys " + name + " and the next one have no delimiter in dissect pattern: " + pattern);
+      }
+      parsed.add(new Key(name.isEmpty() ? null : name, delimiter, padded));
+      start = next;
+    }
+    this.keys = parsed.toArray(Key[]::new);
+  }
+
+  @Override
+  public EventSchema getSchema() {
+    return schema;
+  }
+
+  @Override
+  public void setFields(Set<String> names) {
+    if (names == null) {
+      slots = null;
+      return;
+    }
+    int[] resolved = new int[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      String name = keys[i].name();
+      resolved[i] = name != null && names.contains(name) ? schema.slot(name) : -1;
+    }
+    slots = resolved;
+  }
+
+  @Override
+  public boolean parse(CharSequence line, LogEvent event) {
+    int[] selected = slots;
+    if (!startsWith(line, prefix, 0)) {
+      return false;
+    }
+    Map<String, String> all = selected == null ? new HashMap<>() : null;
+    int position = prefix.length();
+    for (int i = 0; i < keys.length; i++) {
+      Key key = keys[i];
+      String delimiter = key.delimiter();
+      int end = delimiter.isEmpty() ? line.length() : indexOf(line, delimiter, position);
+      if (end < 0) {
+        return false;
+      }
+      if (key.name() != null) {
+        if (selected == null) {
+          all.putIfAbsent(key.name(), line.subSequence(position, end).toString());
+        } else if (selected[i] >= 0 && event.get(selected[i]) == null) {
+          event.set(selected[i], line.subSequence(position, end).toString());
+        }
+      }
+      position = end + delimiter.length();
+      while (key.padded() && !delimiter.isEmpty() && startsWith(line, delimiter, position)) {
+        position += delimiter.length();
+      }
+    }
+    if (all != null) {
+      event.setAll(all);
+    }
+    return true;
+  }
+
+  private static boolean startsWith(CharSequence line, String literal, int from) {
+    if (from + literal.length() > line.length()) {
+      return false;
+    }
+    for (int i = 0; i < literal.length(); i++) {
+      if (line.charAt(from + i) != literal.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int indexOf(CharSequence line, String literal, int from) {
+    char first = literal.charAt(0);
+    for (int i = from, last = line.length() - literal.length(); i <= last; i++) {
+      if (line.charAt(i) == first && startsWith(line, literal, i)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /** A key of the pattern, null if skipped, and the literal that ends its text. */
+  private record Key(String name, String delimiter, boolean padded) {}
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Assigns every field name a slot in {@link LogEvent}s, once at configuration time, so that parsers
+ * and handlers exchange fields by index instead of by name. Slot {@link #PATH} holds the file a
+ * line was read from.
+ */
+public final class EventSchema {
+
+  public static final int PATH = 0;
+
+  private final Map<String, Integer> slots = new ConcurrentHashMap<>();
+  private final List<String> names = new CopyOnWriteArrayList<>();
+
+  public EventSchema() {
+    slot("path");
+  }
+
+  /** Returns the slot of the field, assigning it one if it has none yet. */
+  public synchronized int slot(String field) {
+    Integer slot = slots.get(field);
+    if (slot == null) {
+      slot = names.size();
+      slots.put(field, slot);
+      names.add(field);
+    }
+    return slot;
+  }
+
+  /** Returns the slot of the field, or -1 if it has none. */
+  public int indexOf(String field) {
+    return slots.getOrDefault(field, -1);
+  }
+
+  public String name(int slot) {
+    return names.get(slot);
+  }
+
+  public int size() {
+    return names.size();
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Patterns that never match the same line, such as one per shape of line in a log. They are tried
+ * in turn until one matches, most frequently matching first: every {@value #REORDER_INTERVAL} lines
+ * on average, the order is adapted to the hits seen since, with older hits decaying.
+ */
+public final class ExclusiveGroup {
+
+  static final int REORDER_INTERVAL = 4096;
+
+  private final String name;
+  private final List<String> patterns;
+  private final LongAdder[] hits;
+  private final LongAdder misses = new LongAdder();
+  private final long[] reorderedHits;
+  private final double[] scores;
+  private volatile int[] order;
+
+  ExclusiveGroup(String name, List<String> patterns) {
+    this.name = name;
+    this.patterns = List.copyOf(patterns);
+    this.hits =
+        IntStream.range(0, patterns.size())
+            .mapToObj(i -> new LongAdder())
+            .toArray(LongAdder[]::new);
+    this.reorderedHits = new long[patterns.size()];
+    this.scores = new double[patterns.size()];
+    this.order = IntStream.range(0, patterns.size()).toArray();
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /** Returns the patterns of the group, in the order of their registration. */
+  public List<String> getPatterns() {
+    return patterns;
+  }
+
+  /** Returns the number of lines matched by the pattern at the given index. */
+  public long getHits(int pattern) {
+    return hits[pattern].sum();
+  }
+
+  /** Returns the number of lines matched by no pattern of the group. */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /** Returns the indexes of the patterns, in the order they are to be tried in. */
+  int[] order() {
+    if (ThreadLocalRandom.current().nextInt(REORDER_INTERVAL) == 0) {
+      reorder();
+    }
+    return order;
+  }
+
+  void hit(int pattern) {
+    hits[pattern].increment();
+  }
+
+  void miss() {
+    misses.increment();
+  }
+
+  synchronized void reorder() {
+    for (int i = 0; i < scores.length; i++) {
+      long total = hits[i].sum();
+      scores[i] = scores[i] / 2 + (total - reorderedHits[i]);
+      reorderedHits[i] = total;
+    }
+    order =
+        IntStream.range(0, scores.length)
+            .boxed()
+            .sorted(Comparator.comparingDouble((Integer i) -> scores[i]).reversed())
+            .mapToInt(Integer::intValue)
+            .toArray();
+  }
+}
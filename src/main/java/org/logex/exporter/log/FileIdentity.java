@@ -0,0 +1,131 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Identifies a log file independently of its path: the device and inode it lives on, plus a
+ * fingerprint of its first bytes that tells a reused inode apart from the original file.
+ */
+public final class FileIdentity {
+
+  static final int FINGERPRINT_SIZE = 1024;
+
+  private final long device;
+  private final long inode;
+  private final long fingerprint;
+  private final int fingerprintLength;
+
+  public FileIdentity(long device, long inode, long fingerprint, int fingerprintLength) {
+    this.device = device;
+    this.inode = inode;
+    this.fingerprint = fingerprint;
+    this.fingerprintLength = fingerprintLength;
+  }
+
+  /** Reads the identity of the file the channel was opened on. */
+  public static FileIdentity of(Path path, FileChannel channel) throws IOException {
+    long device = 0;
+    long inode = 0;
+    try {
+      Map<String, Object> attributes = Files.readAttributes(path, "unix:dev,ino");
+      device = ((Number) attributes.get("dev")).longValue();
+      inode = ((Number) attributes.get("ino")).longValue();
+    } catch (UnsupportedOperationException | IllegalArgumentException e) {
+      // No inode on this platform: the fingerprint alone identifies the file.
+    }
+    return new FileIdentity(device, inode, 0, 0).refresh(channel);
+  }
+
+  /** Returns this identity with the fingerprint recomputed over the current head of the file. */
+  public FileIdentity refresh(FileChannel channel) throws IOException {
+    int length = (int) Math.min(channel.size(), FINGERPRINT_SIZE);
+    return new FileIdentity(device, inode, fingerprint(channel, length), length);
+  }
+
+  /**
+   * Returns whether the channel holds the file this identity was taken from, that is whether its
+   * first {@link #getFingerprintLength()} bytes are unchanged.
+   */
+  public boolean matches(FileChannel channel) throws IOException {
+    return channel.size() >= fingerprintLength
+        && fingerprint(channel, fingerprintLength) == fingerprint;
+  }
+
+  /** Returns whether both identities refer to the same inode. */
+  public boolean sameInode(FileIdentity other) {
+    return device == other.device && inode == other.inode;
+  }
+
+  static long fingerprint(FileChannel channel, int length) throws IOException {
+    ByteBuffer head = ByteBuffer.allocate(length);
+    while (head.hasRemaining()) {
+      if (channel.read(head, head.position()) < 0) {
+        break;
+      }
+    }
+    head.flip();
+    CRC32C crc = new CRC32C();
+    crc.update(head);
+    return crc.getValue();
+  }
+
+  public long getDevice() {
+    return device;
+  }
+
+  public long getInode() {
+    return inode;
+  }
+
+  public long getFingerprint() {
+    return fingerprint;
+  }
+
+  public int getFingerprintLength() {
+    return fingerprintLength;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof FileIdentity other)) {
+      return false;
+    }
+    return sameInode(other)
+        && fingerprint == other.fingerprint
+        && fingerprintLength == other.fingerprintLength;
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(device * 31 + inode);
+  }
+
+  @Override
+  public String toString() {
+    return "dev=" + device + ",ino=" + inode + ",fp=" + Long.toHexString(fingerprint);
+  }
+}
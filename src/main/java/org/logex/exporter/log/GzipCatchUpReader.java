@@ -0,0 +1,199 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads the lines of a rotated file that were not tailed before it was compressed. The decompressed
+ * head of a {@code .gz} file is matched against the checkpoints, and only the content past the
+ * offset of the matching checkpoint is handled. Compressed files without a matching checkpoint were
+ * never tailed and are left alone.
+ *
+ * <p>A file is only read once its size was the same at two submissions, such as its creation and
+ * the next scan, so that one still being written by gzip is left for later. Only the head of a file
+ * without a matching checkpoint is decompressed. The content of a matching one is decompressed
+ * once, and its unread part is held back until the archive ended cleanly, so that a truncated
+ * archive is not handled partially and then again once complete. That part is what the tailer
+ * missed between its last read and the rotation, which is usually small.
+ *
+ * <p>Catch-up runs on its own small pool of low-priority threads with a bounded queue, so it cannot
+ * delay the live tailers. Files rejected because the queue is full are retried on the next scan.
+ */
+public class GzipCatchUpReader {
+
+  private static final Logger LOG = LoggerFactory.getLogger(GzipCatchUpReader.class);
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final int QUEUE_CAPACITY = 1024;
+
+  private final LineDispatcher dispatcher;
+  private final CheckpointStore checkpoints;
+  private final Predicate<FileIdentity> tailed;
+  private final ThreadPoolExecutor executor;
+  private final Set<Path> pending = ConcurrentHashMap.newKeySet();
+  // The size of every compressed file when it was last submitted.
+  private final Map<Path, Long> sizes = new ConcurrentHashMap<>();
+
+  /**
+   * @param tailed tells whether a file is still followed by a tailer, which then reads the rest of
+   *     it itself
+   */
+  public GzipCatchUpReader(
+      LineDispatcher dispatcher,
+      CheckpointStore checkpoints,
+      Predicate<FileIdentity> tailed,
+      int threads) {
+    this.dispatcher = dispatcher;
+    this.checkpoints = checkpoints;
+    this.tailed = tailed;
+    AtomicInteger counter = new AtomicInteger();
+    this.executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0,
+            TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(QUEUE_CAPACITY),
+            runnable -> {
+              Thread thread = new Thread(runnable, "gzip-catch-up-" + counter.incrementAndGet());
+              thread.setDaemon(true);
+              thread.setPriority(Thread.MIN_PRIORITY);
+              return thread;
+            });
+  }
+
+  /** Returns whether the file looks like a compressed rotated file. */
+  public static boolean isCompressed(Path path) {
+    return path.getFileName().toString().endsWith(".gz");
+  }
+
+  /**
+   * Queues a catch-up of the compressed file, unless one is already queued or its size changed
+   * since it was last submitted.
+   */
+  public void submit(Path path) {
+    long size;
+    try {
+      size = Files.size(path);
+    } catch (IOException e) {
+      sizes.remove(path);
+      return; // Already gone
+    }
+    Long previous = sizes.put(path, size);
+    if (previous == null || previous != size) {
+      LOG.debug("{} may still be written, deferring it", path);
+      return;
+    }
+    if (!pending.add(path)) {
+      return;
+    }
+    try {
+      executor.execute(
+          () -> {
+            try {
+              catchUp(path);
+            } finally {
+              sizes.remove(path);
+              pending.remove(path);
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      pending.remove(path);
+      LOG.debug("Catch-up queue is full, deferring {}", path);
+    }
+  }
+
+  /** Handles the lines of the compressed file that were not read before it was compressed. */
+  void catchUp(Path path) {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      FileIdentity identity = FileIdentity.of(path, channel);
+      if (checkpoints.find(path.toString(), identity, channel) != null) {
+        return; // Already caught up
+      }
+      long read = read(path, Channels.newInputStream(channel));
+      checkpoints.update(path.toString(), identity, read);
+    } catch (IOException e) {
+      LOG.error("Error catching up compressed file {}: {}", path, e.getMessage());
+    }
+  }
+
+  /**
+   * Handles the unread part of the content and returns the number of decompressed bytes read.
+   * Throws before any line is handled if the archive is incomplete.
+   */
+  private long read(Path path, InputStream compressed) throws IOException {
+    try (InputStream in = new GZIPInputStream(compressed, BUFFER_SIZE)) {
+      byte[] buffer = new byte[BUFFER_SIZE];
+      int length = in.readNBytes(buffer, 0, FileIdentity.FINGERPRINT_SIZE);
+      CheckpointStore.Checkpoint checkpoint = checkpoints.findByContent(buffer, length);
+      if (checkpoint == null) {
+        LOG.debug("No checkpoint matches {}, skipping it", path);
+        return length;
+      }
+      if (checkpoint.getInode() != 0 && tailed.test(checkpoint.getIdentity())) {
+        LOG.debug("{} is still read by its tailer, skipping it", path);
+        return length;
+      }
+      long offset = checkpoint.getOffset();
+      String origin =
+          checkpoint.getOrigin() != null ? checkpoint.getOrigin() : checkpoint.getPath();
+      ByteArrayOutputStream unread = new ByteArrayOutputStream();
+      long total = 0;
+      int n = length;
+      while (n > 0) {
+        long start = Math.max(offset - total, 0);
+        if (start < n) {
+          unread.write(buffer, (int) start, n - (int) start);
+        }
+        total += n;
+        // Returns -1 only once the trailer of the archive was verified.
+        n = in.read(buffer);
+      }
+      int handled = unread.size();
+      LineSplitter splitter = new LineSplitter(line -> dispatcher.dispatch(line, origin));
+      splitter.feed(ByteBuffer.wrap(unread.toByteArray()), 0, handled);
+      splitter.finish();
+      if (handled > 0) {
+        LOG.info("Caught up {} bytes of {} from offset {}", handled, path, offset);
+      }
+      return total;
+    }
+  }
+
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+}
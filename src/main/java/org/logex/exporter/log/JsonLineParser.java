@@ -0,0 +1,176 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parses lines holding one JSON object, with Jackson's streaming parser. A field is named by the
+ * dotted path of its key, such as {@code request.method}, which also matches keys containing dots.
+ * Only scalar values are extracted; arrays and null values are skipped.
+ *
+ * <p>Once restricted with {@link #setFields(Set)}, the keys that lead to no field in use are
+ * skipped without being decoded, and the rest of the line is not read once every field in use was
+ * found. Restricted, an object only matches if it holds at least one field in use other than the
+ * path, so that metrics of the format only count the lines they are about. Lines that are not JSON
+ * objects do not match.
+ */
+public class JsonLineParser implements LineParser {
+
+  private static final JsonFactory FACTORY = new JsonFactory();
+  private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[256]);
+
+  private final EventSchema schema;
+  private volatile Key fields;
+
+  public JsonLineParser() {
+    this(new EventSchema());
+  }
+
+  public JsonLineParser(EventSchema schema) {
+    this.schema = schema;
+  }
+
+  @Override
+  public EventSchema getSchema() {
+    return schema;
+  }
+
+  @Override
+  public void setFields(Set<String> names) {
+    if (names == null) {
+      fields = null;
+      return;
+    }
+    Key root = new Key();
+    for (String name : names) {
+      root.add(name, schema.slot(name));
+    }
+    root.remaining = names.size();
+    root.selectors = (int) names.stream().filter(name -> !name.equals("path")).count();
+    fields = root;
+  }
+
+  @Override
+  public boolean parse(CharSequence line, LogEvent event) {
+    Key selected = fields;
+    int length = line.length();
+    char[] chars = BUFFER.get();
+    if (chars.length < length) {
+      chars = new char[Math.max(length, chars.length * 2)];
+      BUFFER.set(chars);
+    }
+    for (int i = 0; i < length; i++) {
+      chars[i] = line.charAt(i);
+    }
+    try (JsonParser parser = FACTORY.createParser(chars, 0, length)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        return false;
+      }
+      if (selected == null) {
+        Map<String, String> all = new HashMap<>();
+        flatten(parser, "", all);
+        if (parser.nextToken() != null) {
+          return false;
+        }
+        event.setAll(all);
+        return true;
+      }
+      // The fields left to find, and the selectors found.
+      int[] counts = {selected.remaining, 0};
+      if (read(parser, selected, event, counts) && parser.nextToken() != null) {
+        return false;
+      }
+      return counts[1] > 0 || selected.selectors == 0;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Reads the object the parser is in into the event, and returns whether the object was read up to
+   * its end, rather than left as soon as every field was found.
+   */
+  private static boolean read(JsonParser parser, Key key, LogEvent event, int[] counts)
+      throws IOException {
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      Key child = key.children.get(parser.currentName());
+      JsonToken token = parser.nextToken();
+      if (child == null) {
+        parser.skipChildren();
+      } else if (token == JsonToken.START_OBJECT && !child.children.isEmpty()) {
+        if (!read(parser, child, event, counts)) {
+          return false;
+        }
+      } else if (token.isScalarValue() && token != JsonToken.VALUE_NULL && child.slot >= 0) {
+        if (event.get(child.slot) == null) {
+          counts[0]--;
+          if (child.slot != EventSchema.PATH) {
+            counts[1]++;
+          }
+        }
+        event.set(child.slot, parser.getText());
+        if (counts[0] == 0) {
+          return false;
+        }
+      } else {
+        parser.skipChildren();
+      }
+    }
+    return true;
+  }
+
+  private static void flatten(JsonParser parser, String prefix, Map<String, String> all)
+      throws IOException {
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String name = prefix + parser.currentName();
+      JsonToken token = parser.nextToken();
+      if (token == JsonToken.START_OBJECT) {
+        flatten(parser, name + ".", all);
+      } else if (token.isScalarValue() && token != JsonToken.VALUE_NULL) {
+        all.put(name, parser.getText());
+      } else {
+        parser.skipChildren();
+      }
+    }
+  }
+
+  /**
+   * The keys leading to fields in use. A dotted path is reachable through every split of it into
+   * keys, so that {@code a.b} is found both in {@code {"a": {"b": 1}}} and {@code {"a.b": 1}}.
+   */
+  private static final class Key {
+    private final Map<String, Key> children = new HashMap<>();
+    private int slot = -1;
+    private int remaining;
+    private int selectors;
+
+    private void add(String path, int slot) {
+      children.computeIfAbsent(path, k -> new Key()).slot = slot;
+      for (int dot = path.indexOf('.'); dot >= 0; dot = path.indexOf('.', dot + 1)) {
+        children
+            .computeIfAbsent(path.substring(0, dot), k -> new Key())
+            .add(path.substring(dot + 1), slot);
+      }
+    }
+  }
+}
@@ -0,0 +1,350 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import org.logex.exporter.regex.RegexSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs every registered LineParser on a line and hands the extracted fields to the LogHandlers of
+ * each matching pattern. Shared by all tailers and backfill workers, so it must be thread-safe. As
+ * a LineSink, it handles every line synchronously on the reading thread.
+ *
+ * <p>All grok patterns are first run at once on the line by a {@link RegexSet}, and only those that
+ * may match are then run to extract their fields. Parsers of other formats are always run. The few
+ * patterns the set cannot run are prefiltered instead: the literals they require are searched in
+ * the line, all at once by a {@link LiteralPrefilter}, and such a pattern is only run if the line
+ * contains all of its literals.
+ *
+ * <p>The patterns of an {@link ExclusiveGroup} are run in the order of the group, and only until
+ * one of them matches.
+ *
+ * <p>With a {@link ParseResultCache}, a line identical to a recent one is handled by making the
+ * updates that handling the recent one made again, as long as all its handlers could resolve them.
+ * The hits and misses of the exclusive groups are recorded again as well. Lines whose match was
+ * abandoned for exceeding its time budget are never cached.
+ */
+public class LineDispatcher implements LineSink {
+
+  private static final Logger LOG = LoggerFactory.getLogger(LineDispatcher.class);
+  private static final ThreadLocal<LogEvent> EVENT = ThreadLocal.withInitial(LogEvent::new);
+  // Outcomes of running a route on a line.
+  private static final int NO_MATCH = 0;
+  private static final int MATCHED = 1;
+  private static final int TIMED_OUT = 2;
+
+  private final Map<String, LineParser> parsers;
+  private final Map<String, List<LogHandler>> handlers;
+  private final Map<String, String> exclusiveGroups;
+  private volatile Plan plan;
+  private volatile ParseResultCache cache;
+
+  public LineDispatcher(Map<String, LineParser> parsers, Map<String, List<LogHandler>> handlers) {
+    this(parsers, handlers, Map.of());
+  }
+
+  /**
+   * Creates a dispatcher running the parsers of the patterns mapped to the same name in {@code
+   * exclusiveGroups} as an exclusive group.
+   */
+  public LineDispatcher(
+      Map<String, LineParser> parsers,
+      Map<String, List<LogHandler>> handlers,
+      Map<String, String> exclusiveGroups) {
+    this.parsers = parsers;
+    this.handlers = handlers;
+    this.exclusiveGroups = exclusiveGroups;
+  }
+
+  /**
+   * Returns the name under which a pattern registered in the exclusive group is kept apart from the
+   * registrations of the same pattern outside of it, which must not lose the lines the group
+   * claims.
+   */
+  static String groupKey(String group, String matchPattern) {
+    return "group:" + group + ":" + matchPattern;
+  }
+
+  @Override
+  public Channel open(String origin) {
+    return line -> dispatch(line, origin);
+  }
+
+  /** Parses the line and handles it, labelling it with the file it was read from. */
+  public void dispatch(CharSequence line, String path) {
+    ParseResultCache current = cache;
+    if (current == null) {
+      parse(line, path, (lineHandlers, event) -> handle(lineHandlers, event, null));
+      return;
+    }
+    int hash = current.hash(line, path);
+    Runnable[] cached = current.get(line, path, hash);
+    if (cached != null) {
+      for (Runnable update : cached) {
+        update.run();
+      }
+      return;
+    }
+    List<Runnable> updates = new ArrayList<>();
+    boolean[] resolved = {true};
+    boolean complete =
+        parse(
+            line,
+            path,
+            (lineHandlers, event) -> resolved[0] &= handle(lineHandlers, event, updates),
+            updates);
+    if (resolved[0] && complete) {
+      current.put(line, path, hash, updates.toArray(Runnable[]::new));
+    }
+  }
+
+  /**
+   * Hands the event to the handlers, as a map to those that do not read events. If {@code updates}
+   * is not null, the updates the handlers made are added to it, and whether every handler could
+   * resolve its update is returned.
+   */
+  static boolean handle(List<LogHandler> handlers, LogEvent event, List<Runnable> updates) {
+    Map<String, String> data = null;
+    boolean resolved = true;
+    for (LogHandler handler : handlers) {
+      if (handler instanceof LogEventHandler eventHandler) {
+        if (updates == null) {
+          eventHandler.handle(event);
+        } else {
+          Runnable update = eventHandler.resolve(event);
+          update.run();
+          updates.add(update);
+        }
+      } else {
+        if (data == null) {
+          data = event.asMap();
+        }
+        handler.handle(data);
+        resolved = false;
+      }
+    }
+    return resolved;
+  }
+
+  /** Returns the cache of the updates made for recent lines, or null if there is none. */
+  public ParseResultCache getCache() {
+    return cache;
+  }
+
+  public void setCache(ParseResultCache cache) {
+    this.cache = cache;
+  }
+
+  /**
+   * Parses the line, labelled with the file it was read from, and reports the fields extracted by
+   * every matching pattern along with the handlers of that pattern, without running them. The event
+   * is reused for the next pattern and line, so it must be copied to be kept.
+   */
+  public void parse(
+      CharSequence line, String path, BiConsumer<List<LogHandler>, LogEvent> matched) {
+    parse(line, path, matched, null);
+  }
+
+  /**
+   * Parses the line as {@link #parse(CharSequence, String, BiConsumer)} does. If {@code groupStats}
+   * is not null, the hits and misses recorded in the exclusive groups are added to it, so that they
+   * can be recorded again for an identical line. Returns false if the match of a pattern was
+   * abandoned for exceeding its time budget, in which case the outcome must not be reused.
+   */
+  public boolean parse(
+      CharSequence line,
+      String path,
+      BiConsumer<List<LogHandler>, LogEvent> matched,
+      List<Runnable> groupStats) {
+    LOG.debug("Handle: {}", line);
+    boolean complete = true;
+    Plan plan = plan();
+    long[] candidates = new long[plan.set().words()];
+    plan.set().match(line, candidates);
+    long[] found = null;
+    if (plan.prefilter() != null) {
+      found = new long[plan.prefilter().words()];
+      plan.prefilter().scan(line, found);
+    }
+    for (Route route : plan.routes()) {
+      complete &= run(route, line, path, candidates, found, matched) != TIMED_OUT;
+    }
+    for (GroupPlan group : plan.groups()) {
+      Runnable stat = group.miss();
+      for (int i : group.group().order()) {
+        int outcome = run(group.routes()[i], line, path, candidates, found, matched);
+        complete &= outcome != TIMED_OUT;
+        if (outcome == MATCHED) {
+          stat = group.hits()[i];
+          break;
+        }
+      }
+      stat.run();
+      if (groupStats != null) {
+        groupStats.add(stat);
+      }
+    }
+    return complete;
+  }
+
+  /**
+   * Runs the route on the line, unless ruled out beforehand, and returns whether it {@link
+   * #MATCHED}, did not, or {@link #TIMED_OUT}.
+   */
+  private static int run(
+      Route route,
+      CharSequence line,
+      String path,
+      long[] candidates,
+      long[] found,
+      BiConsumer<List<LogHandler>, LogEvent> matched) {
+    if (route.index() >= 0 && (candidates[route.index() >>> 6] & 1L << route.index()) == 0
+        || found != null && !containsAll(found, route.required())) {
+      return NO_MATCH;
+    }
+    LogEvent event = EVENT.get().reset(route.parser().getSchema());
+    if (!route.parser().parse(line, event)) {
+      return event.isTimedOut() ? TIMED_OUT : NO_MATCH;
+    }
+    if (event.get(EventSchema.PATH) == null) {
+      event.set(EventSchema.PATH, path);
+    }
+    matched.accept(route.handlers(), event);
+    return MATCHED;
+  }
+
+  /** Returns the exclusive groups, whose statistics restart whenever a pattern is registered. */
+  public List<ExclusiveGroup> getExclusiveGroups() {
+    return plan().groups().stream().map(GroupPlan::group).toList();
+  }
+
+  /**
+   * Discards the plan, so that it is rebuilt with the parsers registered since, and the cached
+   * updates, which the new parsers may change.
+   */
+  public void reset() {
+    plan = null;
+    ParseResultCache current = cache;
+    if (current != null) {
+      current.clear();
+    }
+  }
+
+  private Plan plan() {
+    Plan current = plan;
+    if (current == null) {
+      current = buildPlan();
+      plan = current;
+    }
+    return current;
+  }
+
+  private Plan buildPlan() {
+    List<String> matchPatterns = new ArrayList<>(parsers.keySet());
+    List<LogParser> grokParsers = new ArrayList<>();
+    for (String matchPattern : matchPatterns) {
+      if (parsers.get(matchPattern) instanceof LogParser parser) {
+        grokParsers.add(parser);
+      }
+    }
+    RegexSet set = new RegexSet(grokParsers.stream().map(LogParser::getRegex).toList());
+    Map<String, Integer> ids = new LinkedHashMap<>();
+    for (int i = 0; i < grokParsers.size(); i++) {
+      if (!set.isSupported(i)) {
+        LOG.debug("Pattern {} is prefiltered on its own", grokParsers.get(i).getRegex());
+        grokParsers
+            .get(i)
+            .getRequiredLiterals()
+            .forEach(literal -> ids.putIfAbsent(literal, ids.size()));
+      }
+    }
+    int words = (ids.size() + 63) / 64;
+    List<Route> routes = new ArrayList<>();
+    Map<String, List<String>> groupPatterns = new LinkedHashMap<>();
+    Map<String, List<Route>> groupRoutes = new LinkedHashMap<>();
+    for (String matchPattern : matchPatterns) {
+      LineParser parser = parsers.get(matchPattern);
+      int index = grokParsers.indexOf(parser);
+      long[] required = new long[words];
+      if (index >= 0 && !set.isSupported(index)) {
+        for (String literal : grokParsers.get(index).getRequiredLiterals()) {
+          int id = ids.get(literal);
+          required[id >>> 6] |= 1L << id;
+        }
+      }
+      Route route = new Route(parser, handlers.get(matchPattern), index, required);
+      String group = exclusiveGroups.get(matchPattern);
+      if (group == null) {
+        routes.add(route);
+      } else {
+        String prefix = groupKey(group, "");
+        groupPatterns
+            .computeIfAbsent(group, name -> new ArrayList<>())
+            .add(
+                matchPattern.startsWith(prefix)
+                    ? matchPattern.substring(prefix.length())
+                    : matchPattern);
+        groupRoutes.computeIfAbsent(group, name -> new ArrayList<>()).add(route);
+      }
+    }
+    List<GroupPlan> groups = new ArrayList<>();
+    groupPatterns.forEach(
+        (name, patterns) ->
+            groups.add(
+                new GroupPlan(
+                    new ExclusiveGroup(name, patterns),
+                    groupRoutes.get(name).toArray(Route[]::new))));
+    LOG.debug("Prefiltering {} patterns with literals {}", matchPatterns.size(), ids.keySet());
+    return new Plan(
+        routes,
+        groups,
+        set,
+        ids.isEmpty() ? null : new LiteralPrefilter(new ArrayList<>(ids.keySet())));
+  }
+
+  private static boolean containsAll(long[] found, long[] required) {
+    for (int i = 0; i < required.length; i++) {
+      if ((required[i] & ~found[i]) != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** A parser with its handlers, and its index in the set, or -1 if the set does not run it. */
+  private record Route(LineParser parser, List<LogHandler> handlers, int index, long[] required) {}
+
+  /** An exclusive group with its routes, and the recording of a hit of every route or a miss. */
+  private record GroupPlan(ExclusiveGroup group, Route[] routes, Runnable[] hits, Runnable miss) {
+
+    GroupPlan(ExclusiveGroup group, Route[] routes) {
+      this(group, routes, new Runnable[routes.length], group::miss);
+      for (int i = 0; i < routes.length; i++) {
+        int route = i;
+        hits[i] = () -> group.hit(route);
+      }
+    }
+  }
+
+  private record Plan(
+      List<Route> routes, List<GroupPlan> groups, RegexSet set, LiteralPrefilter prefilter) {}
+}
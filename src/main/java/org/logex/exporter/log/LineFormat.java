@@ -0,0 +1,34 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import java.util.Locale;
+
+/** The format of log lines, which selects the {@link LineParser} extracting their fields. */
+public enum LineFormat {
+  /** Lines matched by the grok pattern of the metric. */
+  GROK,
+  /** Lines holding one JSON object, whose fields are named by their dotted path. */
+  JSON,
+  /** Lines of space-separated {@code key=value} pairs. */
+  LOGFMT,
+  /** Lines split on the literal delimiters of the dissect pattern of the metric. */
+  DISSECT;
+
+  public static LineFormat of(String name) {
+    return name == null ? GROK : valueOf(name.toUpperCase(Locale.ROOT));
+  }
+}
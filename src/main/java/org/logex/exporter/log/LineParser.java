@@ -0,0 +1,38 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import java.util.Set;
+
+/** Extracts the fields of the log lines it matches into {@link LogEvent}s. */
+public interface LineParser {
+
+  /** Returns the schema that assigns the fields of parsed events their slots. */
+  EventSchema getSchema();
+
+  /**
+   * Restricts the fields extracted from matching lines to the given ones, or lifts the restriction
+   * if null.
+   */
+  void setFields(Set<String> names);
+
+  /**
+   * Parses the line into the slots of the event, which must have been reset with the schema of this
+   * parser, and returns whether it matched. Unrestricted, the event also keeps every extracted
+   * field by name.
+   */
+  boolean parse(CharSequence line, LogEvent event);
+}
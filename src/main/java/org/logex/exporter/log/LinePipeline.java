@@ -0,0 +1,145 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.logex.exporter.config.PipelineConfig;
+
+/**
+ * Decouples reading from parsing and aggregating, so that a slow pattern or label action delays
+ * neither the reader threads nor the other files. Lines are copied into batches on the reader
+ * thread, parsed by the workers of the parse stage, and handed to the workers of the aggregate
+ * stage, which run the LogHandlers. All lines of a file go through the same workers, in order.
+ *
+ * <p>With the {@link ParseResultCache} of the dispatcher, lines found in it are not parsed: the
+ * parse stage hands their cached updates to the aggregate stage instead, which caches the updates
+ * of the other lines once handled, along with the hits and misses of the exclusive groups recorded
+ * while parsing them. Lines whose match timed out are not cached.
+ *
+ * <p>Lines are checkpointed once read, so lines still queued when the process dies are not read
+ * again, and neither are lines dropped by an overflow policy.
+ */
+public class LinePipeline implements LineSink {
+
+  private static final int BATCH_SIZE = 256;
+
+  private final LineDispatcher dispatcher;
+  private final PipelineStage<LineBatch> parseStage;
+  private final PipelineStage<ParsedBatch> aggregateStage;
+
+  public LinePipeline(LineDispatcher dispatcher, PipelineConfig config) {
+    this.dispatcher = dispatcher;
+    this.aggregateStage =
+        new PipelineStage<>(
+            "aggregate", config.getAggregate(), batch -> batch.lines().size(), this::aggregate);
+    this.parseStage =
+        new PipelineStage<>("parse", config.getParse(), batch -> batch.lines().size(), this::parse);
+  }
+
+  @Override
+  public Channel open(String origin) {
+    return new Channel() {
+      private List<String> lines = new ArrayList<>(BATCH_SIZE);
+
+      @Override
+      public void accept(CharSequence line) {
+        lines.add(line.toString());
+        if (lines.size() == BATCH_SIZE) {
+          flush();
+        }
+      }
+
+      @Override
+      public void flush() {
+        if (!lines.isEmpty()) {
+          parseStage.submit(origin.hashCode(), new LineBatch(origin, lines));
+          lines = new ArrayList<>(BATCH_SIZE);
+        }
+      }
+    };
+  }
+
+  public List<PipelineStage<?>> getStages() {
+    return List.of(parseStage, aggregateStage);
+  }
+
+  private void parse(LineBatch batch) {
+    ParseResultCache cache = dispatcher.getCache();
+    List<ParsedLine> parsed = new ArrayList<>();
+    for (String line : batch.lines()) {
+      int hash = cache != null ? cache.hash(line, batch.origin()) : 0;
+      Runnable[] cached = cache != null ? cache.get(line, batch.origin(), hash) : null;
+      if (cached != null) {
+        if (cached.length > 0) {
+          parsed.add(new ParsedLine(line, hash, List.of(), cached, null));
+        }
+        continue;
+      }
+      List<Event> events = new ArrayList<>(1);
+      List<Runnable> groupStats = cache != null ? new ArrayList<>() : null;
+      boolean complete =
+          dispatcher.parse(
+              line,
+              batch.origin(),
+              (handlers, event) -> events.add(new Event(handlers, event.copy())),
+              groupStats);
+      if (!events.isEmpty()) {
+        parsed.add(new ParsedLine(line, hash, events, null, complete ? groupStats : null));
+      } else if (cache != null && complete) {
+        cache.put(line, batch.origin(), hash, groupStats.toArray(Runnable[]::new));
+      }
+    }
+    if (!parsed.isEmpty()) {
+      aggregateStage.submit(batch.origin().hashCode(), new ParsedBatch(batch.origin(), parsed));
+    }
+  }
+
+  private void aggregate(ParsedBatch batch) {
+    ParseResultCache cache = dispatcher.getCache();
+    for (ParsedLine line : batch.lines()) {
+      if (line.cached() != null) {
+        for (Runnable update : line.cached()) {
+          update.run();
+        }
+        continue;
+      }
+      // The group statistics were recorded while parsing, and are only kept for the cache.
+      List<Runnable> updates =
+          line.groupStats() != null ? new ArrayList<>(line.groupStats()) : null;
+      boolean resolved = true;
+      for (Event event : line.events()) {
+        resolved &= LineDispatcher.handle(event.handlers(), event.data(), updates);
+      }
+      if (cache != null && updates != null && resolved) {
+        cache.put(line.line(), batch.origin(), line.hash(), updates.toArray(Runnable[]::new));
+      }
+    }
+  }
+
+  private record LineBatch(String origin, List<String> lines) {}
+
+  /**
+   * A line with the events parsed from it, or the updates cached for it. The statistics of the
+   * exclusive groups are null if the line must not be cached.
+   */
+  private record ParsedLine(
+      String line, int hash, List<Event> events, Runnable[] cached, List<Runnable> groupStats) {}
+
+  private record ParsedBatch(String origin, List<ParsedLine> lines) {}
+
+  private record Event(List<LogHandler> handlers, LogEvent data) {}
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+/** Receives the lines read by the tailers, each through the channel of its file. */
+public interface LineSink {
+
+  /** Opens the channel receiving the lines of the file tailed at {@code origin}. */
+  Channel open(String origin);
+
+  /** Receives the lines of one file, from one thread at a time. */
+  interface Channel {
+
+    /** Handles a line, which is only valid during the call. */
+    void accept(CharSequence line);
+
+    /** Hands over the lines accepted so far, at the end of every read. */
+    default void flush() {}
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Splits chunks of UTF-8 bytes on newline bytes and hands every complete line to a consumer as a
+ * {@link Utf8Line} view over the chunk itself. Only a trailing unterminated line is copied, so that
+ * it can be completed by the next chunk.
+ */
+public class LineSplitter {
+
+  private static final ThreadLocal<Utf8Line> LINE = ThreadLocal.withInitial(Utf8Line::new);
+
+  private final Consumer<CharSequence> consumer;
+  private byte[] partial = new byte[0];
+  private int partialLength;
+  private boolean partialAscii = true;
+
+  public LineSplitter(Consumer<CharSequence> consumer) {
+    this.consumer = consumer;
+  }
+
+  /** Splits bytes {@code [start, end)} of the buffer, carrying an unterminated tail over. */
+  public void feed(ByteBuffer buffer, int start, int end) {
+    Utf8Line line = LINE.get();
+    int lineStart = start;
+    boolean ascii = true;
+    for (int i = start; i < end; i++) {
+      byte b = buffer.get(i);
+      if (b == '\n') {
+        if (partialLength > 0) {
+          append(buffer, lineStart, i, ascii);
+          emit(line, ByteBuffer.wrap(partial), 0, partialLength, partialAscii);
+          partialLength = 0;
+          partialAscii = true;
+        } else {
+          emit(line, buffer, lineStart, i, ascii);
+        }
+        lineStart = i + 1;
+        ascii = true;
+      } else if (b < 0) {
+        ascii = false;
+      }
+    }
+    append(buffer, lineStart, end, ascii);
+  }
+
+  /** Hands out the unterminated tail, if any, as a last line. */
+  public void finish() {
+    if (partialLength > 0) {
+      emit(LINE.get(), ByteBuffer.wrap(partial), 0, partialLength, partialAscii);
+    }
+    reset();
+  }
+
+  /** Returns the number of carried bytes, that is the length of the unterminated tail. */
+  public int pending() {
+    return partialLength;
+  }
+
+  /** Discards the unterminated tail. */
+  public void reset() {
+    partialLength = 0;
+    partialAscii = true;
+  }
+
+  private void emit(Utf8Line line, ByteBuffer buffer, int start, int end, boolean ascii) {
+    if (end > start && buffer.get(end - 1) == '\r') {
+      end--;
+    }
+    consumer.accept(line.reset(buffer, start, end, ascii));
+  }
+
+  private void append(ByteBuffer buffer, int start, int end, boolean ascii) {
+    int length = end - start;
+    if (length == 0) {
+      return;
+    }
+    if (partialLength + length > partial.length) {
+      partial = Arrays.copyOf(partial, Math.max(partialLength + length, partialLength * 2));
+    }
+    buffer.get(start, partial, partialLength, length);
+    partialLength += length;
+    partialAscii &= ascii;
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds which of a set of literals occur in a line in a single pass, whatever their number, with an
+ * Aho-Corasick automaton. Transitions on ASCII characters are precomputed into a table, others
+ * follow the failure links.
+ */
+final class LiteralPrefilter {
+
+  private static final int ASCII = 128;
+
+  private final int words;
+  private final List<Map<Character, Integer>> children = new ArrayList<>();
+  private final int[] fail;
+  private final int[] asciiNext;
+  // Bits of the literals ending at each node, including through failure links; null if none.
+  private final long[][] output;
+
+  LiteralPrefilter(List<String> literals) {
+    this.words = (literals.size() + 63) / 64;
+    children.add(new HashMap<>());
+    List<long[]> ends = new ArrayList<>();
+    ends.add(null);
+    for (int id = 0; id < literals.size(); id++) {
+      int node = 0;
+      for (char c : literals.get(id).toCharArray()) {
+        Integer next = children.get(node).get(c);
+        if (next == null) {
+          next = children.size();
+          children.get(node).put(c, next);
+          children.add(new HashMap<>());
+          ends.add(null);
+        }
+        node = next;
+      }
+      if (ends.get(node) == null) {
+        ends.set(node, new long[words]);
+      }
+      ends.get(node)[id >>> 6] |= 1L << id;
+    }
+
+    int nodes = children.size();
+    this.fail = new int[nodes];
+    this.asciiNext = new int[nodes * ASCII];
+    this.output = new long[nodes][];
+    // Breadth-first, so that the failure node of every node is complete before it.
+    ArrayDeque<Integer> queue = new ArrayDeque<>();
+    queue.add(0);
+    while (!queue.isEmpty()) {
+      int node = queue.poll();
+      output[node] = merge(ends.get(node), node == 0 ? null : output[fail[node]]);
+      for (Map.Entry<Character, Integer> child : children.get(node).entrySet()) {
+        int next = child.getValue();
+        fail[next] = node == 0 ? 0 : step(fail[node], child.getKey());
+        queue.add(next);
+      }
+      for (char c = 0; c < ASCII; c++) {
+        Integer next = children.get(node).get(c);
+        asciiNext[node * ASCII + c] =
+            next != null ? next : node == 0 ? 0 : asciiNext[fail[node] * ASCII + c];
+      }
+    }
+  }
+
+  private static long[] merge(long[] own, long[] inherited) {
+    if (own == null || inherited == null) {
+      return own != null ? own : inherited;
+    }
+    long[] merged = own.clone();
+    for (int i = 0; i < merged.length; i++) {
+      merged[i] |= inherited[i];
+    }
+    return merged;
+  }
+
+  private int step(int node, char c) {
+    while (true) {
+      Integer next = children.get(node).get(c);
+      if (next != null) {
+        return next;
+      }
+      if (node == 0) {
+        return 0;
+      }
+      node = fail[node];
+    }
+  }
+
+  /** Returns the number of longs in a bit set of the literals. */
+  int words() {
+    return words;
+  }
+
+  /** Sets in {@code found} the bit of every literal occurring in the line. */
+  void scan(CharSequence line, long[] found) {
+    int node = 0;
+    for (int i = 0, length = line.length(); i < length; i++) {
+      char c = line.charAt(i);
+      node = c < ASCII ? asciiNext[node * ASCII + c] : step(node, c);
+      long[] matched = output[node];
+      if (matched != null) {
+        for (int w = 0; w < words; w++) {
+          found[w] |= matched[w];
+        }
+      }
+    }
+  }
+}
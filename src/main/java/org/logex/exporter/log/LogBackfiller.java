@@ -0,0 +1,162 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Handles the existing content of log files in one pass, as fast as the hardware allows. Every file
+ * is split into newline-aligned byte ranges which are memory mapped and parsed in parallel on a
+ * fork-join pool, through the same LineDispatcher as the tailers.
+ *
+ * <p>Lines are not handled in file order. This does not matter for counters, histograms and
+ * summaries, but a gauge ends up with the value of an arbitrary line.
+ */
+public class LogBackfiller {
+
+  private static final Logger LOG = LoggerFactory.getLogger(LogBackfiller.class);
+  // Ranges larger than this are split in two; it also bounds the size of a single mapping.
+  private static final long RANGE_SIZE = 16 * 1024 * 1024;
+  private static final int SCAN_SIZE = 4096;
+
+  private final LineDispatcher dispatcher;
+  private final int parallelism;
+  private final long rangeSize;
+
+  public LogBackfiller(LineDispatcher dispatcher, int parallelism) {
+    this(dispatcher, parallelism, RANGE_SIZE);
+  }
+
+  LogBackfiller(LineDispatcher dispatcher, int parallelism, long rangeSize) {
+    this.dispatcher = dispatcher;
+    this.parallelism = parallelism;
+    this.rangeSize = rangeSize;
+  }
+
+  /** Handles every line of the given files and returns the number of lines read. */
+  public long backfill(List<Path> files) {
+    LongAdder lines = new LongAdder();
+    List<FileChannel> channels = new ArrayList<>();
+    List<RangeTask> tasks = new ArrayList<>();
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      for (Path file : files) {
+        try {
+          FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+          channels.add(channel);
+          tasks.add(new RangeTask(channel, file.toString(), 0, channel.size(), lines));
+        } catch (IOException e) {
+          LOG.error("Error opening file {} for backfill: {}", file, e.getMessage());
+        }
+      }
+      pool.submit(() -> ForkJoinTask.invokeAll(tasks)).join();
+    } finally {
+      pool.shutdown();
+      for (FileChannel channel : channels) {
+        try {
+          channel.close();
+        } catch (IOException e) {
+          LOG.error("Error closing backfilled file: {}", e.getMessage());
+        }
+      }
+    }
+    return lines.sum();
+  }
+
+  /** Handles the lines of bytes {@code [start, end)} of a file, splitting the range if large. */
+  private class RangeTask extends RecursiveAction {
+    private final FileChannel channel;
+    private final String path;
+    private final long start;
+    private final long end;
+    private final LongAdder lines;
+
+    RangeTask(FileChannel channel, String path, long start, long end, LongAdder lines) {
+      this.channel = channel;
+      this.path = path;
+      this.start = start;
+      this.end = end;
+      this.lines = lines;
+    }
+
+    @Override
+    protected void compute() {
+      try {
+        if (end - start > rangeSize) {
+          long split = nextLineStart(start + (end - start) / 2);
+          if (split < end) {
+            invokeAll(
+                new RangeTask(channel, path, start, split, lines),
+                new RangeTask(channel, path, split, end, lines));
+            return;
+          }
+        }
+        process();
+      } catch (IOException e) {
+        LOG.error("Error backfilling bytes {}-{} of file {}: {}", start, end, path, e.getMessage());
+      }
+    }
+
+    private void process() throws IOException {
+      LineSplitter splitter =
+          new LineSplitter(
+              line -> {
+                dispatcher.dispatch(line, path);
+                lines.increment();
+              });
+      // A range without any newline may exceed the mapping size, so map it window by window.
+      for (long position = start; position < end; ) {
+        int n = (int) Math.min(end - position, rangeSize);
+        ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, n);
+        splitter.feed(mapped, 0, n);
+        position += n;
+      }
+      splitter.finish();
+    }
+
+    /** Returns the offset of the first line starting at or after {@code from}, up to the end. */
+    private long nextLineStart(long from) throws IOException {
+      ByteBuffer buffer = ByteBuffer.allocate(SCAN_SIZE);
+      long position = from;
+      while (position < end) {
+        buffer.clear();
+        int n = channel.read(buffer, position);
+        if (n <= 0) {
+          break;
+        }
+        for (int i = 0; i < n; i++) {
+          if (buffer.get(i) == '\n') {
+            return Math.min(position + i + 1, end);
+          }
+        }
+        position += n;
+      }
+      return end;
+    }
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The fields parsed from a line, in the slots of an {@link EventSchema}. An event is reused for
+ * every line parsed on a thread, so handlers must not keep it; {@link #copy()} makes one that can
+ * be handed to another thread.
+ */
+public final class LogEvent {
+
+  private EventSchema schema;
+  private String[] values = new String[0];
+  private int size;
+  private Map<String, String> fields;
+  private boolean timedOut;
+
+  /** Clears the event for a new line parsed into the slots of the schema. */
+  public LogEvent reset(EventSchema schema) {
+    this.schema = schema;
+    Arrays.fill(values, 0, size, null);
+    size = schema.size();
+    if (values.length < size) {
+      values = new String[size];
+    }
+    fields = null;
+    timedOut = false;
+    return this;
+  }
+
+  /** Returns the value in the slot, or null if it is unset or -1. */
+  public String get(int slot) {
+    return slot >= 0 && slot < size ? values[slot] : null;
+  }
+
+  public void set(int slot, String value) {
+    values[slot] = value;
+  }
+
+  /**
+   * Sets every field of the map that has a slot, and keeps the map for handlers that read fields by
+   * name, including those without a slot.
+   */
+  void setAll(Map<String, String> captured) {
+    fields = captured;
+    captured.forEach(
+        (name, value) -> {
+          int slot = schema.indexOf(name);
+          if (slot >= 0 && slot < size) {
+            values[slot] = value;
+          }
+        });
+  }
+
+  /** Records that the match of the line was abandoned because it exceeded its time budget. */
+  void markTimedOut() {
+    timedOut = true;
+  }
+
+  /** Returns whether the line did not match because its match was abandoned. */
+  public boolean isTimedOut() {
+    return timedOut;
+  }
+
+  /** Returns a copy of the event that is not reused. */
+  public LogEvent copy() {
+    LogEvent copy = new LogEvent();
+    copy.schema = schema;
+    copy.values = Arrays.copyOf(values, size);
+    copy.size = size;
+    copy.fields = fields;
+    return copy;
+  }
+
+  /** Returns the fields by name, for handlers that do not read slots. */
+  public Map<String, String> asMap() {
+    Map<String, String> map = fields != null ? new HashMap<>(fields) : new HashMap<>();
+    for (int slot = 0; slot < size; slot++) {
+      if (values[slot] != null) {
+        map.putIfAbsent(schema.name(slot), values[slot]);
+      }
+    }
+    return map;
+  }
+}
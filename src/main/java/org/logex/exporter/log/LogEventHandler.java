@@ -0,0 +1,36 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+/**
+ * A handler that reads the fields of parsed lines from the slots of {@link LogEvent}s, rather than
+ * from maps. Other handlers are still handed every event as a map.
+ */
+public interface LogEventHandler extends LogHandler {
+
+  /** Resolves the fields the handler reads to their slots, before any event is handled. */
+  void bind(EventSchema schema);
+
+  /** Handles a parsed line. The event is reused afterwards, so it must not be kept. */
+  void handle(LogEvent event);
+
+  /**
+   * Resolves the update that handling the event makes, without making it. The update must not
+   * depend on anything but the event, so that it can be made again for an identical line instead of
+   * handling it.
+   */
+  Runnable resolve(LogEvent event);
+}
@@ -18,22 +18,70 @@ package org.logex.exporter.log;
 import io.krakens.grok.api.Grok;
 import io.krakens.grok.api.GrokCompiler;
 import io.krakens.grok.api.Match;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.logex.exporter.regex.LinearRegex;
+import org.logex.exporter.regex.UnsupportedRegexException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Parses log lines based on a specified format and extracts named capture groups using Java-Grok
- * library.
+ * library. With the {@link RegexEngine#LINEAR} engine, the expression grok compiles the format into
+ * is run by a {@link LinearRegex} instead of {@code java.util.regex}, if it can be.
+ *
+ * <p>Once restricted with {@link #setFields(Set)}, only the groups of the fields that are used are
+ * copied out of a matching line, straight into the result. {@link #parse(CharSequence, LogEvent)}
+ * copies them into the slots the {@link EventSchema} assigned to them.
+ *
+ * <p>With a time budget set by {@link #setMatchTimeout}, a match that exceeds it is abandoned, and
+ * the line is counted as timed out rather than matched.
  */
-public class LogParser {
+public class LogParser implements LineParser {
   private static final Logger LOG = LoggerFactory.getLogger(LogParser.class);
 
+  /** The result of parsing a line that does not match. */
+  public static final Map<String, String> NO_MATCH = Collections.emptyMap();
+
+  private static final ThreadLocal<DeadlineCharSequence> DEADLINE =
+      ThreadLocal.withInitial(DeadlineCharSequence::new);
+
   private final Grok grok;
+  private final Pattern pattern;
+  private final ThreadLocal<Matcher> matchers;
+  private final Set<String> requiredLiterals;
+  private final LinearRegex linear;
+  private final EventSchema schema;
+  private volatile Field[] fields;
+  private final LongAdder timeouts = new LongAdder();
+  private volatile long matchTimeoutNanos;
+  private volatile TimeoutSampler sampler;
 
   public LogParser(String matchFormat, Map<String, String> globalPatterns) {
+    this(matchFormat, globalPatterns, RegexEngine.JDK);
+  }
+
+  public LogParser(String matchFormat, Map<String, String> globalPatterns, RegexEngine engine) {
+    this(matchFormat, globalPatterns, engine, new EventSchema());
+  }
+
+  public LogParser(
+      String matchFormat,
+      Map<String, String> globalPatterns,
+      RegexEngine engine,
+      EventSchema schema) {
+    this.schema = schema;
     GrokCompiler grokCompiler = GrokCompiler.newInstance();
     grokCompiler.registerDefaultPatterns();
 
@@ -48,16 +96,278 @@ public class LogParser {
     LOG.debug("Before parse: {}", matchFormat);
     this.grok = grokCompiler.compile(matchFormat);
     LOG.debug("After  parse: {}", grok.getNamedRegex());
+    this.pattern = Pattern.compile(grok.getNamedRegex());
+    this.matchers = ThreadLocal.withInitial(() -> pattern.matcher(""));
+    this.requiredLiterals = RequiredLiterals.of(grok.getNamedRegex());
+    LOG.debug("Required literals: {}", requiredLiterals);
+
+    LinearRegex compiled = null;
+    if (engine == RegexEngine.LINEAR && !grok.converters.isEmpty()) {
+      LOG.warn(
+          "Pattern {} falls back to the java.util.regex engine, as the linear-time engine does"
+              + " not convert typed captures",
+          matchFormat);
+    } else if (engine == RegexEngine.LINEAR) {
+      try {
+        compiled = LinearRegex.compile(grok.getNamedRegex());
+        LOG.info("Pattern {} runs on the linear-time regex engine", matchFormat);
+      } catch (UnsupportedRegexException e) {
+        LOG.warn(
+            "Pattern {} falls back to the java.util.regex engine, as the linear-time engine does"
+                + " not support it: {}",
+            matchFormat,
+            e.getMessage());
+      }
+    }
+    this.linear = compiled;
+  }
+
+  /** Returns the engine the pattern actually runs on. */
+  public RegexEngine getEngine() {
+    return linear != null ? RegexEngine.LINEAR : RegexEngine.JDK;
+  }
+
+  /** Returns the {@code java.util.regex} expression the pattern was compiled into. */
+  public String getRegex() {
+    return grok.getNamedRegex();
+  }
+
+  @Override
+  public EventSchema getSchema() {
+    return schema;
+  }
+
+  /** Returns the grok pattern the parser was compiled from. */
+  public String getPattern() {
+    return grok.getOriginalGrokPattern();
+  }
+
+  /**
+   * Sets the time budget of matching a line, or none if not positive. Lines that exceed it are
+   * handed to the sampler, if not null.
+   */
+  public void setMatchTimeout(long millis, TimeoutSampler sampler) {
+    this.matchTimeoutNanos = Math.max(0, millis) * 1_000_000;
+    this.sampler = sampler;
+  }
+
+  /** Returns the number of lines whose match was abandoned for exceeding the time budget. */
+  public long getTimeouts() {
+    return timeouts.sum();
+  }
+
+  /** Returns substrings that every line matched by this parser contains. */
+  public Set<String> getRequiredLiterals() {
+    return requiredLiterals;
+  }
+
+  /**
+   * Restricts the fields extracted from matching lines to the given ones, or lifts the restriction
+   * if null. Patterns with typed captures always extract every field, converted.
+   */
+  @Override
+  public void setFields(Set<String> names) {
+    if (names == null || !grok.converters.isEmpty()) {
+      fields = null;
+      return;
+    }
+    Map<String, List<Integer>> groups = new LinkedHashMap<>();
+    pattern.namedGroups().entrySet().stream()
+        .sorted(Map.Entry.comparingByValue(Comparator.naturalOrder()))
+        .forEach(
+            group -> {
+              String key = key(group.getKey());
+              if (names.contains(key) && !"UNWANTED".equals(key)) {
+                groups.computeIfAbsent(key, k -> new ArrayList<>()).add(group.getValue());
+              }
+            });
+    fields =
+        groups.entrySet().stream()
+            .map(
+                field ->
+                    new Field(
+                        field.getKey(),
+                        schema.slot(field.getKey()),
+                        field.getValue().stream().mapToInt(Integer::intValue).toArray()))
+            .toArray(Field[]::new);
+    LOG.debug("Extracting fields {} of {}", groups.keySet(), grok.getOriginalGrokPattern());
+  }
+
+  /**
+   * Parses the line into the fields captured by the pattern, or returns {@link #NO_MATCH}. Once
+   * restricted, a field captured by several groups takes the value of the first that participated.
+   */
+  public Map<String, String> parse(CharSequence line) {
+    try {
+      return capture(line);
+    } catch (MatchTimeoutException e) {
+      timedOut(line);
+      return NO_MATCH;
+    }
+  }
+
+  private Map<String, String> capture(CharSequence line) {
+    Field[] selected = fields;
+    CharSequence input = budgeted(line);
+    if (selected == null) {
+      return linear != null ? parseLinear(input) : parseAll(input);
+    }
+    Map<String, String> result = new HashMap<>();
+    if (!extract(input, selected, (field, value) -> result.put(field.name(), value))) {
+      return NO_MATCH;
+    }
+    return result;
+  }
+
+  @Override
+  public boolean parse(CharSequence line, LogEvent event) {
+    Field[] selected = fields;
+    try {
+      if (selected == null) {
+        Map<String, String> captured = capture(line);
+        if (captured == NO_MATCH) {
+          return false;
+        }
+        event.setAll(captured);
+        return true;
+      }
+      return extract(budgeted(line), selected, (field, value) -> event.set(field.slot(), value));
+    } catch (MatchTimeoutException e) {
+      timedOut(line);
+      event.markTimedOut();
+      return false;
+    }
+  }
+
+  /** Returns the line as read by the regex engines, which is bounded by the time budget if any. */
+  private CharSequence budgeted(CharSequence line) {
+    long budget = matchTimeoutNanos;
+    return budget > 0 ? DEADLINE.get().reset(line, System.nanoTime() + budget) : line;
   }
 
-  public Map<String, String> parse(String line) {
+  private void timedOut(CharSequence line) {
+    timeouts.increment();
+    LOG.debug("Match of {} timed out on: {}", grok.getOriginalGrokPattern(), line);
+    TimeoutSampler current = sampler;
+    if (current != null) {
+      current.sample(grok.getOriginalGrokPattern(), line);
+    }
+  }
+
+  /** Hands the value of every selected field of a matching line to the sink. */
+  private boolean extract(CharSequence line, Field[] selected, BiConsumer<Field, String> sink) {
+    if (isBlank(line)) {
+      return false;
+    }
+    if (linear != null) {
+      int[] slots = linear.find(line);
+      if (slots == null) {
+        return false;
+      }
+      for (Field field : selected) {
+        for (int group : field.groups()) {
+          if (slots[2 * group] >= 0) {
+            sink.accept(field, value(line, slots[2 * group], slots[2 * group + 1]));
+            break;
+          }
+        }
+      }
+    } else {
+      Matcher matcher = matchers.get().reset(line);
+      if (!matcher.find()) {
+        return false;
+      }
+      for (Field field : selected) {
+        for (int group : field.groups()) {
+          if (matcher.start(group) >= 0) {
+            sink.accept(field, value(line, matcher.start(group), matcher.end(group)));
+            break;
+          }
+        }
+      }
+    }
+    return true;
+  }
+
+  private Map<String, String> parseAll(CharSequence line) {
     Match gm = grok.match(line);
 
     if (gm.isNull()) {
-      return Collections.emptyMap();
+      return NO_MATCH;
+    }
+    return toStrings(gm.capture());
+  }
+
+  private String key(String group) {
+    String key = grok.getNamedRegexCollectionById(group);
+    return key == null || key.isEmpty() ? group : key;
+  }
+
+  private static String value(CharSequence line, int start, int end) {
+    return unquote(line.subSequence(start, end).toString());
+  }
+
+  /** Whether grok considers the line blank, in which case it never matches. */
+  private static boolean isBlank(CharSequence line) {
+    for (int i = 0; i < line.length(); i++) {
+      if (!Character.isWhitespace(line.charAt(i))) {
+        return false;
+      }
     }
-    Map<String, Object> capture = gm.capture();
+    return true;
+  }
+
+  /** Captures the groups found by the linear-time engine the way {@link Match#capture()} does. */
+  @SuppressWarnings("unchecked")
+  private Map<String, String> parseLinear(CharSequence line) {
+    int[] slots = isBlank(line) ? null : linear.find(line);
+    if (slots == null) {
+      return NO_MATCH;
+    }
+    Map<String, Object> capture = new HashMap<>();
+    for (String name : grok.namedGroups) {
+      String key = key(name);
+      if ("UNWANTED".equals(key)) {
+        continue;
+      }
+      int group = linear.groupNames().get(name);
+      String value =
+          slots[2 * group] < 0
+              ? null
+              : line.subSequence(slots[2 * group], slots[2 * group + 1]).toString();
+      if (value != null) {
+        value = unquote(value);
+      }
+      if (!capture.containsKey(key)) {
+        capture.put(key, value);
+      } else if (capture.get(key) instanceof List<?> values) {
+        ((List<Object>) values).add(value);
+      } else {
+        capture.put(key, new ArrayList<>(Arrays.asList(capture.get(key), value)));
+      }
+    }
+    return toStrings(capture);
+  }
+
+  /** Strips the quotes around a value, unless they are also found inside. */
+  private static String unquote(String value) {
+    if (value.isEmpty()) {
+      return value;
+    }
+    char quote = value.charAt(0);
+    if ((quote != '"' && quote != '\'') || value.charAt(value.length() - 1) != quote) {
+      return value;
+    }
+    if (value.length() <= 2) {
+      return "";
+    }
+    String inner = value.substring(1, value.length() - 1);
+    return inner.indexOf(quote) < 0 ? inner : value;
+  }
+
+  private record Field(String name, int slot, int[] groups) {}
 
+  private static Map<String, String> toStrings(Map<String, Object> capture) {
     Map<String, String> result = new HashMap<>();
     for (Map.Entry<String, Object> entry : capture.entrySet()) {
       if (entry.getValue() != null) {
@@ -15,64 +15,262 @@
  */
 package org.logex.exporter.log;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.List;
-import java.util.Map;
-import org.apache.commons.io.input.Tailer;
-import org.apache.commons.io.input.TailerListenerAdapter;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-/** Monitors a log file for new entries and processes them using a LogHandler. */
-public class LogTailer extends TailerListenerAdapter implements Runnable {
+/**
+ * Reads the lines appended to a log file and processes them using the registered LogHandlers. Reads
+ * are not periodic: a {@link LogWatcher} schedules one whenever the file is modified, so an idle
+ * file costs nothing. Reads run on a shared pool whose size does not depend on the number of files,
+ * using a direct buffer owned by the reading thread, or a memory mapping for large backlogs.
+ *
+ * <p>A tailer follows one file (inode), not a path: once opened, it keeps reading the same file
+ * when it is renamed by a rotation. Its {@link #getPath() location} is updated by the
+ * LogTailerManager, while the {@link #getOrigin() origin} it was started for keeps labelling its
+ * lines.
+ */
+public class LogTailer {
 
   private static final Logger LOG = LoggerFactory.getLogger(LogTailer.class);
-  private final Path filePath;
-  private final Tailer tailer;
-  private final Map<String, LogParser> parsers;
-  private final Map<String, List<LogHandler>> handlers;
-
-  public LogTailer(
-      Path filePath,
-      Map<String, LogParser> parsers,
-      Map<String, List<LogHandler>> handlers,
-      int delayMillis,
-      boolean end) {
-    this.filePath = filePath;
-    this.parsers = parsers;
-    this.handlers = handlers;
-    this.tailer = new Tailer(filePath.toFile(), this, delayMillis, end);
-  }
-
-  @Override
-  public void handle(String line) {
-    LOG.debug("Handle: {}", line);
-    parsers.forEach(
-        (matchPattern, parser) -> {
-          Map<String, String> data = parser.parse(line);
-          LOG.info("Parse: {}", data);
-          if (data.isEmpty()) {
-            return;
-          }
-          data.putIfAbsent("path", filePath.toString());
-          handlers.get(matchPattern).forEach(handler -> handler.handle(data));
-        });
-  }
-
-  @Override
-  public void handle(Exception ex) {
-    LOG.error("Error tailing file {}: {}", filePath, ex.getMessage());
+  private static final int BUFFER_SIZE = 64 * 1024;
+  // Bytes read per scheduled turn, so that one busy file cannot monopolize a reader thread.
+  private static final long MAX_BYTES_PER_TURN = 1024 * 1024;
+  private static final ThreadLocal<ByteBuffer> READ_BUFFER =
+      ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+  private static final long MMAP_THRESHOLD = 8 * 1024 * 1024;
+  // A mapping covers at most one turn, as scheduled reads never go further.
+  private static final long MMAP_WINDOW = MAX_BYTES_PER_TURN;
+  // How often the head of a file that did not shrink is compared to its fingerprint.
+  static final long FINGERPRINT_CHECK_MILLIS = 1000;
+
+  private final String origin;
+  private final LineSink.Channel lines;
+  private final boolean end;
+  private final CheckpointStore checkpoints;
+  private final AtomicInteger pendingSignals = new AtomicInteger();
+  private final LineSplitter splitter = new LineSplitter(this::handle);
+  private FileChannel channel;
+  private volatile FileIdentity identity;
+  private volatile Path location;
+  private long position;
+  private long checkedSize;
+  private long checkedAt;
+  private volatile boolean stopped;
+
+  public LogTailer(Path filePath, LineSink sink, boolean end, CheckpointStore checkpoints) {
+    this.location = filePath;
+    this.origin = filePath.toString();
+    this.lines = sink.open(origin);
+    this.end = end;
+    this.checkpoints = checkpoints;
+  }
+
+  /** Returns the current location of the followed file. */
+  public Path getPath() {
+    return location;
+  }
+
+  /** Returns the path this tailer was started for, which labels its lines. */
+  public String getOrigin() {
+    return origin;
+  }
+
+  /** Returns the identity of the followed file, or null until it was opened. */
+  public FileIdentity getIdentity() {
+    return identity;
+  }
+
+  /** Records that the followed file was renamed to {@code path}. */
+  public void relocate(Path path) {
+    LOG.info("File {} was renamed to {}", location, path);
+    this.location = path;
+  }
+
+  /**
+   * Schedules a read on the given executor. At most one read per file is queued or running at any
+   * time; modifications reported in the meantime are coalesced into a follow-up turn.
+   */
+  public void schedule(Executor executor) {
+    if (!stopped && pendingSignals.getAndIncrement() == 0) {
+      executor.execute(() -> runTurn(executor));
+    }
+  }
+
+  private void runTurn(Executor executor) {
+    int signals = pendingSignals.get();
+    try {
+      if (read(MAX_BYTES_PER_TURN)) {
+        // Data is left over: keep a signal pending so that the file is requeued behind the others.
+        pendingSignals.incrementAndGet();
+      }
+    } finally {
+      // Always release the signals, or the file would never be scheduled again.
+      if (pendingSignals.addAndGet(-signals) > 0 && !stopped) {
+        executor.execute(() -> runTurn(executor));
+      }
+    }
+  }
+
+  /** Reads everything appended since the previous read and handles every complete line. */
+  public void read() {
+    while (read(Long.MAX_VALUE)) {
+      // Keep reading until the end of the file.
+    }
+  }
+
+  /**
+   * Reads at most {@code maxBytes} and handles every complete line.
+   *
+   * @return whether the budget was exhausted before reaching the end of the file
+   */
+  private synchronized boolean read(long maxBytes) {
+    if (stopped) {
+      return false;
+    }
+    try {
+      if (channel == null && !open(end)) {
+        return false;
+      }
+      if (channel.size() < position || headChanged()) {
+        LOG.info("File {} was truncated, reading from the beginning", location);
+        position = 0;
+        splitter.reset();
+        identity = identity.refresh(channel);
+        checkedSize = channel.size();
+        checkedAt = System.nanoTime();
+      }
+      boolean more = drain(maxBytes);
+      lines.flush();
+      checkpoint();
+      return more;
+    } catch (IOException e) {
+      LOG.error("Error tailing file {}: {}", location, e.getMessage());
+      return false;
+    } catch (InternalError e) {
+      // A mapped page went away, as when the file is truncated while it is scanned. Reopening
+      // resumes from the checkpoint, or from the beginning if the file no longer matches it.
+      // The file is not requeued, so that one whose mappings keep failing waits for its next
+      // modification instead of being retried in a loop.
+      LOG.warn("File {} changed while it was mapped, reopening it: {}", location, e.getMessage());
+      lines.flush();
+      close();
+      return false;
+    }
+  }
+
+  /**
+   * Returns whether the head of the file no longer matches its fingerprint, as when it is truncated
+   * in place by copytruncate and grows past the previous offset again before this read. The head is
+   * only read when the file shrank since the last comparison, or once per interval, so that busy
+   * files are not fingerprinted on every turn.
+   */
+  private boolean headChanged() throws IOException {
+    long size = channel.size();
+    long now = System.nanoTime();
+    if (size >= checkedSize
+        && now - checkedAt < TimeUnit.MILLISECONDS.toNanos(FINGERPRINT_CHECK_MILLIS)) {
+      checkedSize = size;
+      return false;
+    }
+    checkedSize = size;
+    checkedAt = now;
+    return !identity.matches(channel);
+  }
+
+  private boolean open(boolean fromEnd) throws IOException {
+    Path path = location;
+    if (!Files.exists(path)) {
+      return false;
+    }
+    channel = FileChannel.open(path, StandardOpenOption.READ);
+    identity = FileIdentity.of(path, channel);
+    checkedSize = channel.size();
+    checkedAt = System.nanoTime();
+    splitter.reset();
+    CheckpointStore.Checkpoint checkpoint = checkpoints.find(path.toString(), identity, channel);
+    if (checkpoint != null) {
+      position = Math.min(checkpoint.getOffset(), channel.size());
+      LOG.info("Resuming {} at offset {}", path, position);
+    } else if (checkpoints.get(path.toString()) != null) {
+      // The file was replaced since the checkpoint was taken, so all of its content is new.
+      position = 0;
+    } else {
+      position = fromEnd ? channel.size() : 0;
+    }
+    return true;
+  }
+
+  /** Records the offset of the last handled line, refining the fingerprint while it is short. */
+  private void checkpoint() throws IOException {
+    if (identity.getFingerprintLength() < FileIdentity.FINGERPRINT_SIZE
+        && position > identity.getFingerprintLength()) {
+      identity = identity.refresh(channel);
+    }
+    checkpoints.update(location.toString(), origin, identity, position - splitter.pending());
+  }
+
+  private boolean drain(long maxBytes) throws IOException {
+    long remaining = maxBytes;
+    while (!stopped && remaining > 0) {
+      long available = channel.size() - position;
+      if (available <= 0) {
+        return false;
+      }
+      int n;
+      if (available >= MMAP_THRESHOLD) {
+        // Large backlogs are scanned in place instead of being copied into the read buffer.
+        n = (int) Math.min(Math.min(available, remaining), MMAP_WINDOW);
+        ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, n);
+        splitter.feed(mapped, 0, n);
+      } else {
+        ByteBuffer buffer = READ_BUFFER.get();
+        buffer.clear();
+        n = channel.read(buffer, position);
+        if (n <= 0) {
+          return false;
+        }
+        splitter.feed(buffer, 0, n);
+      }
+      position += n;
+      remaining -= n;
+    }
+    return !stopped;
+  }
+
+  public void handle(CharSequence line) {
+    try {
+      lines.accept(line);
+    } catch (RuntimeException e) {
+      // One bad line, such as a value field that is not a number, must not stop the file.
+      LOG.warn("Error handling a line of file {}: {}", location, e.toString());
+    }
   }
 
   public void stop() {
-    if (tailer != null) {
-      tailer.stop();
-      LOG.warn("Stopped tailing inactive file: {}", filePath);
+    stopped = true;
+    synchronized (this) {
+      close();
     }
+    LOG.warn("Stopped tailing file: {}", location);
   }
 
-  @Override
-  public void run() {
-    tailer.run();
+  private void close() {
+    if (channel != null) {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        LOG.error("Error closing file {}: {}", location, e.getMessage());
+      }
+      channel = null;
+    }
   }
 }
@@ -16,105 +16,469 @@
 package org.logex.exporter.log;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.*;
-import java.util.function.Predicate;
+import java.util.stream.Stream;
 import org.logex.exporter.config.AppConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-/** Manages multiple LogTailer instances, starting and stopping them as needed. */
+/**
+ * Manages multiple LogTailer instances, starting and stopping them as needed. Tailers are keyed by
+ * the identity (device and inode) of their file rather than its path, so a rotated file is followed
+ * under its new name instead of being picked up again as a new file.
+ */
 public class LogTailerManager {
 
   private static final Logger LOG = LoggerFactory.getLogger(LogTailerManager.class);
   private final AppConfig appConfig;
-  private final Map<String, LogParser> parsers = new HashMap<>();
+  private final Map<String, LineParser> parsers = new HashMap<>();
+  private final EventSchema schema = new EventSchema();
+  private final TimeoutSampler timeoutSampler;
+  // The fields read by the handlers of each pattern, null if any.
+  private final Map<String, Set<String>> usedFields = new HashMap<>();
   private final Map<String, List<LogHandler>> handlers = new HashMap<>();
-  private final Map<Path, LogTailer> activeTailers = new ConcurrentHashMap<>();
+  // The exclusive group of each pattern that belongs to one.
+  private final Map<String, String> exclusiveGroups = new HashMap<>();
+  private final LineDispatcher dispatcher = new LineDispatcher(parsers, handlers, exclusiveGroups);
+  private final LinePipeline pipeline;
+  private final Map<Object, LogTailer> activeTailers = new ConcurrentHashMap<>();
   private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
-  private final ExecutorService executor = Executors.newCachedThreadPool();
-  private final Predicate<Path> isFileInactive;
+  private final int readerThreads;
+  private final ExecutorService executor;
+  private final LogWatcher watcher;
+  private final CheckpointStore checkpoints;
+  private volatile List<PathGlob> globs = List.of();
+  private final GzipCatchUpReader catchUp;
 
   public LogTailerManager(AppConfig appConfig) {
     this.appConfig = appConfig;
-    this.isFileInactive =
-        path -> {
-          long inactivityThresholdMillis = appConfig.getFileInactivityTimeoutSeconds() * 1000L;
-          long currentTime = System.currentTimeMillis();
-          try {
-            long lastModified = Files.getLastModifiedTime(path).toMillis();
-            return (currentTime - lastModified) > inactivityThresholdMillis;
+    this.readerThreads =
+        appConfig.getReaderThreads() > 0
+            ? appConfig.getReaderThreads()
+            : Runtime.getRuntime().availableProcessors();
+    this.executor = Executors.newFixedThreadPool(readerThreads);
+    this.timeoutSampler =
+        appConfig.getMatchTimeoutSamplePath() != null
+            ? new TimeoutSampler(Paths.get(appConfig.getMatchTimeoutSamplePath()))
+            : null;
+    this.checkpoints =
+        new CheckpointStore(
+            appConfig.getCheckpointPath() != null
+                ? Paths.get(appConfig.getCheckpointPath())
+                : null);
+    if (appConfig.getParseCacheSize() > 0) {
+      dispatcher.setCache(
+          new ParseResultCache(
+              appConfig.getParseCacheSize(), appConfig.getParseCacheMaxLineLength()));
+    }
+    this.pipeline =
+        appConfig.getPipeline() != null && appConfig.getPipeline().isEnabled()
+            ? new LinePipeline(dispatcher, appConfig.getPipeline())
+            : null;
+    this.catchUp =
+        appConfig.isCatchUpCompressed()
+            ? new GzipCatchUpReader(
+                dispatcher, checkpoints, this::isTailed, Math.max(1, appConfig.getCatchUpThreads()))
+            : null;
+    try {
+      this.watcher =
+          new LogWatcher(executor, this::canContain, this::onFileCreated, this::onFileModified);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to create file watcher", e);
+    }
+  }
+
+  /**
+   * Reconciles the tailed files with the filesystem by walking the base path. New files are
+   * normally discovered from watcher events; the walk only catches what events could not report.
+   */
+  public void findAndTailFiles() {
+    List<Path> files = findFiles(true);
+    for (Path path : files) {
+      if (GzipCatchUpReader.isCompressed(path)) {
+        // Compressed files are never tailed, only caught up.
+        if (catchUp != null) {
+          catchUp.submit(path);
+        }
+      } else {
+        track(path, true);
+      }
+    }
+    if (catchUp != null) {
+      findCompressedSiblings(files);
+    }
+  }
+
+  /** Submits the compressed rotated siblings of the files, such as app.log.1.gz for app.log. */
+  private void findCompressedSiblings(List<Path> files) {
+    Map<Path, List<String>> namesByDirectory = new HashMap<>();
+    for (Path file : files) {
+      namesByDirectory
+          .computeIfAbsent(file.toAbsolutePath().getParent(), directory -> new ArrayList<>())
+          .add(file.getFileName().toString());
+    }
+    namesByDirectory.forEach(
+        (directory, names) -> {
+          try (Stream<Path> siblings = Files.list(directory)) {
+            siblings
+                .filter(
+                    sibling ->
+                        GzipCatchUpReader.isCompressed(sibling)
+                            && names.stream()
+                                .anyMatch(sibling.getFileName().toString()::startsWith))
+                .forEach(catchUp::submit);
           } catch (IOException e) {
-            LOG.error("Error getting last modified time for {}: {}", path, e.getMessage());
-            return true; // Treat as inactive if we can't read last modified time
+            LOG.error("Error listing directory {}: {}", directory, e.getMessage());
           }
-        };
+        });
   }
 
-  public void findAndTailFiles() {
-    try {
-      Path basePath = Paths.get(appConfig.getPath()).getParent();
-      while (basePath != null && !Files.exists(basePath)) {
-        basePath = basePath.getParent();
+  /**
+   * Handles the existing content of every matching file once, in parallel, without tailing them.
+   */
+  public void backfill() {
+    List<Path> files =
+        findFiles(false).stream().filter(path -> !GzipCatchUpReader.isCompressed(path)).toList();
+    LOG.info("Backfilling {} files", files.size());
+    long startTime = System.nanoTime();
+    long lines = new LogBackfiller(dispatcher, readerThreads).backfill(files);
+    LOG.info(
+        "Backfilled {} lines in {} ms",
+        lines,
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+  }
+
+  /**
+   * Walks the base directory of every glob for matching files, skipping the subtrees that cannot
+   * contain any. When {@code watch} is set, every directory visited is also watched, so that files
+   * created later are discovered from events.
+   */
+  private List<Path> findFiles(boolean watch) {
+    globs = compileGlobs();
+    Set<Path> files = new LinkedHashSet<>();
+    int[] newDirectories = {0};
+    for (PathGlob glob : globs) {
+      // Start from the deepest existing directory, whose unrelated subtrees are pruned anyway.
+      Path start = glob.getBase();
+      while (start != null && !Files.exists(start)) {
+        start = start.getParent();
       }
-      if (basePath == null) {
-        LOG.warn("Warning: Base path for glob pattern does not exist: {}", appConfig.getPath());
-        return;
+      if (start == null) {
+        LOG.warn("Warning: Base path for glob pattern does not exist: {}", glob);
+        continue;
       }
+      try {
+        Files.walkFileTree(
+            start,
+            new SimpleFileVisitor<>() {
+              @Override
+              public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (!glob.canContain(dir)) {
+                  return FileVisitResult.SKIP_SUBTREE;
+                }
+                if (watch && watcher.watchDirectory(dir)) {
+                  newDirectories[0]++;
+                }
+                return FileVisitResult.CONTINUE;
+              }
+
+              @Override
+              public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile() && glob.matches(file)) {
+                  files.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+              }
+
+              @Override
+              public FileVisitResult visitFileFailed(Path file, IOException e) {
+                LOG.debug("Skipping {}: {}", file, e.getMessage());
+                return FileVisitResult.CONTINUE;
+              }
+            });
+      } catch (IOException e) {
+        LOG.error("Error while scanning for log files: {}", e.getMessage());
+      }
+    }
+    if (newDirectories[0] > 0) {
+      LOG.info(
+          "Watching {} new directories, {} in total",
+          newDirectories[0],
+          watcher.getWatchedDirectories());
+    }
+    return new ArrayList<>(files);
+  }
+
+  private List<PathGlob> compileGlobs() {
+    List<String> patterns = new ArrayList<>();
+    if (appConfig.getPath() != null) {
+      patterns.add(appConfig.getPath());
+    }
+    if (appConfig.getPaths() != null) {
+      patterns.addAll(appConfig.getPaths());
+    }
+    return patterns.stream().map(PathGlob::compile).toList();
+  }
+
+  private void onFileCreated(Path path) {
+    if (GzipCatchUpReader.isCompressed(path)) {
+      if (catchUp != null && canContain(path.getParent())) {
+        catchUp.submit(path);
+      }
+      return;
+    }
+    track(path, matches(path));
+  }
+
+  private void onFileModified(Path path) {
+    // Only reported for files that are not tailed, such as files that became active again.
+    if (!GzipCatchUpReader.isCompressed(path) && matches(path)) {
+      track(path, true);
+    }
+  }
 
-      final PathMatcher matcher =
-          FileSystems.getDefault()
-              .getPathMatcher("glob:" + Paths.get(appConfig.getPath()).getFileName().toString());
-
-      Files.walk(basePath)
-          .filter(Files::isRegularFile)
-          .filter(path -> matcher.matches(path.getFileName()))
-          .filter(path -> !isFileInactive.test(path))
-          .forEach(
-              path ->
-                  activeTailers.computeIfAbsent(
-                      path,
-                      p -> {
-                        LogTailer tailer =
-                            new LogTailer(p, parsers, handlers, 500, appConfig.isTailFromEnd());
-                        executor.submit(tailer);
-                        LOG.info("Start tailing file: {}", p);
-                        return tailer;
-                      }));
+  /**
+   * Starts tailing the file at {@code path} if it matches the configured glob and is active. If its
+   * inode is already tailed under another path, the file was renamed and that tailer is relocated
+   * instead, whether or not the new name matches.
+   */
+  synchronized void track(Path path, boolean matches) {
+    BasicFileAttributes attributes;
+    try {
+      attributes = Files.readAttributes(path, BasicFileAttributes.class);
     } catch (IOException e) {
-      LOG.error("Error while scanning for log files: {}", e.getMessage());
+      return; // Already gone
+    }
+    if (!attributes.isRegularFile()) {
+      return;
+    }
+    Object key = fileKey(path, attributes);
+    LogTailer tracked = activeTailers.get(key);
+    if (tracked != null) {
+      if (!tracked.getPath().equals(path)) {
+        Path previous = tracked.getPath();
+        tracked.relocate(path);
+        watcher.unwatch(previous, tracked);
+        watcher.watch(tracked);
+      }
+      return;
+    }
+    if (!matches || isInactive(attributes)) {
+      return;
+    }
+    LogTailer tailer =
+        new LogTailer(
+            path, pipeline != null ? pipeline : dispatcher, appConfig.isTailFromEnd(), checkpoints);
+    activeTailers.put(key, tailer);
+    LOG.info("Start tailing file: {}", path);
+    List<LogTailer> predecessors =
+        activeTailers.values().stream()
+            .filter(other -> other != tailer && other.getOrigin().equals(tailer.getOrigin()))
+            .toList();
+    if (predecessors.isEmpty()) {
+      watcher.watch(tailer);
+    } else {
+      // The path was rotated: finish the previous files before reading the new one.
+      executor.execute(
+          () -> {
+            predecessors.forEach(LogTailer::read);
+            watcher.watch(tailer);
+          });
     }
   }
 
-  public void cleanupInactiveTailers() {
+  public synchronized void cleanupInactiveTailers() {
+    checkpoints.prune(appConfig.getFileInactivityTimeoutSeconds() * 1000L);
     activeTailers
         .entrySet()
         .removeIf(
             entry -> {
-              Path filePath = entry.getKey();
               LogTailer tailer = entry.getValue();
-              if (isFileInactive.test(filePath)) {
-                tailer.stop();
-                return true;
+              Path filePath = tailer.getPath();
+              BasicFileAttributes attributes;
+              try {
+                attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+              } catch (IOException e) {
+                attributes = null;
+              }
+              if (attributes == null || !entry.getKey().equals(fileKey(filePath, attributes))) {
+                // Moved out of sight or deleted: read what is left through the open channel.
+                tailer.read();
+              } else if (!isInactive(attributes)) {
+                return false;
               }
-              return false;
+              watcher.unwatch(filePath, tailer);
+              tailer.stop();
+              return true;
             });
   }
 
+  private boolean isTailed(FileIdentity identity) {
+    return activeTailers.values().stream()
+        .map(LogTailer::getIdentity)
+        .anyMatch(tailed -> tailed != null && tailed.sameInode(identity));
+  }
+
+  private boolean matches(Path path) {
+    return globs.stream().anyMatch(glob -> glob.matches(path));
+  }
+
+  /** Returns whether the directory may contain matching files, and is thus worth watching. */
+  private boolean canContain(Path directory) {
+    return directory != null && globs.stream().anyMatch(glob -> glob.canContain(directory));
+  }
+
+  private boolean isInactive(BasicFileAttributes attributes) {
+    long inactivityThresholdMillis = appConfig.getFileInactivityTimeoutSeconds() * 1000L;
+    long lastModified = attributes.lastModifiedTime().toMillis();
+    return (System.currentTimeMillis() - lastModified) > inactivityThresholdMillis;
+  }
+
+  private static Object fileKey(Path path, BasicFileAttributes attributes) {
+    // The file key holds the device and inode; platforms without one fall back to the path.
+    return attributes.fileKey() != null ? attributes.fileKey() : path.toAbsolutePath();
+  }
+
+  /**
+   * Returns the pipeline between the tailers and the handlers, or null if lines are handled
+   * synchronously.
+   */
+  public LinePipeline getPipeline() {
+    return pipeline;
+  }
+
+  /**
+   * Returns the number of lines whose match timed out, by grok pattern, for the patterns with a
+   * time budget.
+   */
+  public Map<String, Long> getParseTimeouts() {
+    Map<String, Long> timeouts = new HashMap<>();
+    if (appConfig.getMatchTimeoutMillis() > 0) {
+      parsers.values().stream()
+          .filter(LogParser.class::isInstance)
+          .map(LogParser.class::cast)
+          .forEach(parser -> timeouts.merge(parser.getPattern(), parser.getTimeouts(), Long::sum));
+    }
+    return timeouts;
+  }
+
+  /** Returns the cache of the updates made for recent lines, or null if disabled. */
+  public ParseResultCache getParseCache() {
+    return dispatcher.getCache();
+  }
+
+  /** Returns the exclusive groups of patterns, with their statistics. */
+  public List<ExclusiveGroup> getExclusiveGroups() {
+    return dispatcher.getExclusiveGroups();
+  }
+
   public void register(String matchFormat, LogHandler handler) {
-    parsers.computeIfAbsent(
-        matchFormat, matchPattern -> new LogParser(matchPattern, appConfig.getPatterns()));
-    handlers.computeIfAbsent(matchFormat, matchPattern -> new ArrayList<>()).add(handler);
+    register(matchFormat, null, null, handler);
+  }
+
+  public void register(
+      String matchFormat, String regexEngine, Set<String> fields, LogHandler handler) {
+    register(null, matchFormat, regexEngine, fields, null, handler);
+  }
+
+  /**
+   * Registers a handler for the lines of the given format, or grok if null, that match the pattern
+   * if the format has one. The handler only reads the given fields of the parsed lines, or any if
+   * null. A grok pattern is run on the given regex engine rather than the configured one if not
+   * null; the engine of the first registration of a pattern wins. A pattern registered with an
+   * exclusive group is only run on lines that no pattern of the group matched first, and apart from
+   * its registrations outside of the group or in another group, which still see every line.
+   *
+   * <p>The json and logfmt formats have no pattern: their lines are selected by the fields the
+   * handler uses, at least one of which must be present. Throws IllegalArgumentException if a
+   * pattern is given for them.
+   */
+  public void register(
+      String format,
+      String matchFormat,
+      String regexEngine,
+      Set<String> fields,
+      String exclusiveGroup,
+      LogHandler handler) {
+    LineFormat lineFormat = LineFormat.of(format);
+    if ((lineFormat == LineFormat.JSON || lineFormat == LineFormat.LOGFMT) && matchFormat != null) {
+      throw new IllegalArgumentException(
+          "The " + format + " format takes no match, lines are selected by their fields");
+    }
+    // Handlers of the json and logfmt formats share a parser only if they use the same fields,
+    // as the fields select the lines the parser matches.
+    String key =
+        switch (lineFormat) {
+          case GROK -> matchFormat;
+          case DISSECT -> "format:dissect:" + matchFormat;
+          case JSON, LOGFMT -> "format:"
+              + lineFormat.name().toLowerCase(Locale.ROOT)
+              + ":"
+              + (fields == null ? "*" : String.join(",", new TreeSet<>(fields)));
+        };
+    if (exclusiveGroup != null) {
+      key = LineDispatcher.groupKey(exclusiveGroup, key);
+    }
+    RegexEngine engine =
+        RegexEngine.of(regexEngine != null ? regexEngine : appConfig.getRegexEngine());
+    LineParser parser =
+        parsers.computeIfAbsent(
+            key,
+            k ->
+                switch (lineFormat) {
+                  case GROK -> {
+                    LogParser grokParser =
+                        new LogParser(matchFormat, appConfig.getPatterns(), engine, schema);
+                    grokParser.setMatchTimeout(appConfig.getMatchTimeoutMillis(), timeoutSampler);
+                    yield grokParser;
+                  }
+                  case JSON -> new JsonLineParser(schema);
+                  case LOGFMT -> new LogfmtLineParser(schema);
+                  case DISSECT -> new DissectLineParser(matchFormat, schema);
+                });
+    if (!usedFields.containsKey(key)) {
+      usedFields.put(key, fields == null ? null : new HashSet<>(fields));
+    } else if (usedFields.get(key) != null) {
+      if (fields == null) {
+        usedFields.put(key, null);
+      } else {
+        usedFields.get(key).addAll(fields);
+      }
+    }
+    parser.setFields(usedFields.get(key));
+    if (handler instanceof LogEventHandler eventHandler) {
+      eventHandler.bind(schema);
+    }
+    if (exclusiveGroup != null) {
+      exclusiveGroups.put(key, exclusiveGroup);
+    }
+    handlers.computeIfAbsent(key, matchPattern -> new ArrayList<>()).add(handler);
+    dispatcher.reset();
   }
 
   public void start() {
+    Thread watcherThread = new Thread(watcher, "log-watcher");
+    watcherThread.start();
     scheduler.scheduleAtFixedRate(
         this::findAndTailFiles, 0, appConfig.getFileScanIntervalSeconds(), TimeUnit.SECONDS);
     // Schedule cleanup task to run every minute
     scheduler.scheduleAtFixedRate(this::cleanupInactiveTailers, 1, 1, TimeUnit.MINUTES);
+    if (appConfig.getCheckpointPath() != null) {
+      int interval = Math.max(1, appConfig.getCheckpointIntervalSeconds());
+      scheduler.scheduleWithFixedDelay(checkpoints::flush, interval, interval, TimeUnit.SECONDS);
+      Runtime.getRuntime().addShutdownHook(new Thread(checkpoints::flush, "checkpoint-flush"));
+    }
   }
 }
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Watches the directories of tailed files through a {@link WatchService} (inotify on Linux) and
+ * schedules a read for a LogTailer only when its file is modified. Files created in a watched
+ * directory, including rotated files renamed into place, are reported to a listener, as are
+ * modifications of files that are not tailed.
+ *
+ * <p>The directories of the discovery tree are watched permanently, and directories created in them
+ * are watched as soon as they appear if they may contain log files, so that new files are
+ * discovered from events instead of by walking the tree.
+ */
+public class LogWatcher implements Runnable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(LogWatcher.class);
+  private final WatchService watchService;
+  private final Executor executor;
+  private final Predicate<Path> directoryFilter;
+  private final Consumer<Path> createListener;
+  private final Consumer<Path> modifyListener;
+  private final Map<Path, LogTailer> tailers = new ConcurrentHashMap<>();
+  private final Map<Path, WatchKey> directories = new ConcurrentHashMap<>();
+  private final Set<Path> treeDirectories = ConcurrentHashMap.newKeySet();
+
+  /**
+   * @param directoryFilter tells which new directories belong to the discovery tree
+   */
+  public LogWatcher(
+      Executor executor,
+      Predicate<Path> directoryFilter,
+      Consumer<Path> createListener,
+      Consumer<Path> modifyListener)
+      throws IOException {
+    this.executor = executor;
+    this.directoryFilter = directoryFilter;
+    this.createListener = createListener;
+    this.modifyListener = modifyListener;
+    this.watchService = FileSystems.getDefault().newWatchService();
+  }
+
+  /**
+   * Watches the directory as part of the discovery tree, until it is deleted.
+   *
+   * @return whether the directory was not watched as part of the tree yet
+   */
+  public boolean watchDirectory(Path directory) {
+    Path absolute = directory.toAbsolutePath();
+    try {
+      register(absolute);
+    } catch (IOException e) {
+      LOG.error("Error watching directory {}: {}", absolute, e.getMessage());
+      return false;
+    }
+    return treeDirectories.add(absolute);
+  }
+
+  /** Returns the number of watched directories. */
+  public int getWatchedDirectories() {
+    return directories.size();
+  }
+
+  private void register(Path directory) throws IOException {
+    synchronized (directories) {
+      if (!directories.containsKey(directory)) {
+        directories.put(directory, directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY));
+      }
+    }
+  }
+
+  /** Starts watching the tailer's file and schedules an initial read of its current content. */
+  public void watch(LogTailer tailer) {
+    Path file = tailer.getPath();
+    Path directory = file.toAbsolutePath().getParent();
+    try {
+      register(directory);
+    } catch (IOException e) {
+      LOG.error("Error watching directory {}: {}", directory, e.getMessage());
+      return;
+    }
+    tailers.put(file.toAbsolutePath(), tailer);
+    tailer.schedule(executor);
+  }
+
+  /**
+   * Stops watching the file at {@code file} if it is still watched for the given tailer, and its
+   * directory once no other watched file lives there.
+   */
+  public void unwatch(Path file, LogTailer tailer) {
+    Path absolute = file.toAbsolutePath();
+    if (!tailers.remove(absolute, tailer)) {
+      return;
+    }
+    Path directory = absolute.getParent();
+    synchronized (directories) {
+      if (!treeDirectories.contains(directory)
+          && tailers.keySet().stream().noneMatch(path -> directory.equals(path.getParent()))) {
+        WatchKey key = directories.remove(directory);
+        if (key != null) {
+          key.cancel();
+        }
+      }
+    }
+  }
+
+  /**
+   * Watches the directory and its subdirectories as part of the tree, and reports the files they
+   * already contain as created, since they may have appeared before the watch was registered.
+   */
+  private void discover(Path root) {
+    try {
+      Files.walkFileTree(
+          root,
+          new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+              if (!directoryFilter.test(dir)) {
+                return FileVisitResult.SKIP_SUBTREE;
+              }
+              watchDirectory(dir);
+              return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+              createListener.accept(file);
+              return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+              return FileVisitResult.CONTINUE;
+            }
+          });
+    } catch (IOException e) {
+      LOG.error("Error discovering directory {}: {}", root, e.getMessage());
+    }
+  }
+
+  private void handle(Path directory, WatchEvent<?> event) {
+    if (event.kind() == OVERFLOW) {
+      // Events were lost: read every file of the directory to catch up.
+      tailers.forEach(
+          (path, tailer) -> {
+            if (directory.equals(path.getParent())) {
+              tailer.schedule(executor);
+            }
+          });
+      if (treeDirectories.contains(directory)) {
+        discover(directory);
+      }
+      return;
+    }
+    Path file = directory.resolve((Path) event.context());
+    if (event.kind() == ENTRY_CREATE) {
+      if (treeDirectories.contains(directory) && Files.isDirectory(file)) {
+        discover(file);
+      } else {
+        createListener.accept(file);
+      }
+      return;
+    }
+    LogTailer tailer = tailers.get(file);
+    if (tailer != null) {
+      tailer.schedule(executor);
+    } else {
+      modifyListener.accept(file);
+    }
+  }
+
+  @Override
+  public void run() {
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        WatchKey key = watchService.take();
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+          try {
+            handle(directory, event);
+          } catch (RuntimeException e) {
+            // This is the only discovery thread: keep it alive for the next events.
+            LOG.error("Error handling {} event in directory {}", event.kind(), directory, e);
+          }
+        }
+        if (!key.reset()) {
+          // The directory was deleted.
+          directories.remove(directory, key);
+          treeDirectories.remove(directory);
+        }
+      }
+    } catch (InterruptedException | ClosedWatchServiceException e) {
+      Thread.currentThread().interrupt();
+    }
+    LOG.info("Log watcher stopped.");
+  }
+}
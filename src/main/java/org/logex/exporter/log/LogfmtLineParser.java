@@ -0,0 +1,174 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parses logfmt lines, that is {@code key=value} pairs separated by spaces, in a single pass over
+ * the line. Values may be double-quoted, with backslash escapes, and a key without a value is
+ * {@code true}. A line matches if it holds at least one pair and, once restricted, at least one
+ * field in use other than the path.
+ *
+ * <p>Once restricted with {@link #setFields(Set)}, keys are compared in place, and only the values
+ * of the fields in use are copied out of the line.
+ */
+public class LogfmtLineParser implements LineParser {
+
+  private final EventSchema schema;
+  private volatile Field[] fields;
+  private volatile int selectors;
+
+  public LogfmtLineParser() {
+    this(new EventSchema());
+  }
+
+  public LogfmtLineParser(EventSchema schema) {
+    this.schema = schema;
+  }
+
+  @Override
+  public EventSchema getSchema() {
+    return schema;
+  }
+
+  @Override
+  public void setFields(Set<String> names) {
+    Field[] selected =
+        names == null
+            ? null
+            : names.stream().map(name -> new Field(name, schema.slot(name))).toArray(Field[]::new);
+    selectors =
+        names == null ? 0 : (int) names.stream().filter(name -> !name.equals("path")).count();
+    fields = selected;
+  }
+
+  @Override
+  public boolean parse(CharSequence line, LogEvent event) {
+    Field[] selected = fields;
+    Map<String, String> all = selected == null ? new HashMap<>() : null;
+    int length = line.length();
+    int remaining = selected == null ? -1 : selected.length;
+    boolean matched = false;
+    int found = 0;
+    int i = 0;
+    while (i < length && (remaining != 0 || !matched)) {
+      while (i < length && line.charAt(i) == ' ') {
+        i++;
+      }
+      int keyStart = i;
+      while (i < length && line.charAt(i) != ' ' && line.charAt(i) != '=') {
+        i++;
+      }
+      int keyEnd = i;
+      if (keyEnd == keyStart) {
+        // A stray '=' or trailing spaces: skip to the next pair.
+        while (i < length && line.charAt(i) != ' ') {
+          i++;
+        }
+        continue;
+      }
+      int valueStart = i;
+      int valueEnd = i;
+      boolean quoted = false;
+      if (i < length && line.charAt(i) == '=') {
+        matched = true;
+        i++;
+        valueStart = i;
+        if (i < length && line.charAt(i) == '"') {
+          quoted = true;
+          valueStart = ++i;
+          while (i < length && line.charAt(i) != '"') {
+            i += line.charAt(i) == '\\' ? 2 : 1;
+          }
+          valueEnd = Math.min(i, length);
+          i++;
+        } else {
+          while (i < length && line.charAt(i) != ' ') {
+            i++;
+          }
+          valueEnd = i;
+        }
+      }
+      Field field = selected == null ? null : find(selected, line, keyStart, keyEnd);
+      if (selected != null && (field == null || event.get(field.slot()) != null)) {
+        continue;
+      }
+      String value =
+          valueStart == keyEnd
+              ? "true"
+              : quoted
+                  ? unescape(line, valueStart, valueEnd)
+                  : line.subSequence(valueStart, valueEnd).toString();
+      if (field != null) {
+        event.set(field.slot(), value);
+        remaining--;
+        if (field.slot() != EventSchema.PATH) {
+          found++;
+        }
+      } else {
+        all.put(line.subSequence(keyStart, keyEnd).toString(), value);
+      }
+    }
+    if (!matched || (selected != null && found == 0 && selectors > 0)) {
+      return false;
+    }
+    if (all != null) {
+      event.setAll(all);
+    }
+    return true;
+  }
+
+  private static Field find(Field[] selected, CharSequence line, int start, int end) {
+    for (Field field : selected) {
+      String name = field.name();
+      if (name.length() == end - start && regionEquals(line, start, name)) {
+        return field;
+      }
+    }
+    return null;
+  }
+
+  private static boolean regionEquals(CharSequence line, int start, String name) {
+    for (int i = 0; i < name.length(); i++) {
+      if (line.charAt(start + i) != name.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static String unescape(CharSequence line, int start, int end) {
+    StringBuilder value = null;
+    for (int i = start; i < end; i++) {
+      char c = line.charAt(i);
+      if (c == '\\' && i + 1 < end) {
+        if (value == null) {
+          value = new StringBuilder(end - start).append(line, start, i);
+        }
+        char escaped = line.charAt(++i);
+        value.append(escaped == 'n' ? '\n' : escaped == 't' ? '\t' : escaped);
+      } else if (value != null) {
+        value.append(c);
+      }
+    }
+    return value != null ? value.toString() : line.subSequence(start, end).toString();
+  }
+
+  private record Field(String name, int slot) {}
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+/** Thrown when matching a line takes longer than its time budget. */
+final class MatchTimeoutException extends RuntimeException {
+
+  // Thrown from the innermost loops of the regex engines, so it carries no stack trace.
+  static final MatchTimeoutException INSTANCE = new MatchTimeoutException();
+
+  private MatchTimeoutException() {
+    super("Match timed out", null, false, false);
+  }
+}
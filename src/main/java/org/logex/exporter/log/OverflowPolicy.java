@@ -0,0 +1,32 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import java.util.Locale;
+
+/** What a pipeline stage does with new items while its queue is full. */
+public enum OverflowPolicy {
+  /** Wait for room, slowing down the stage before. */
+  BLOCK,
+  /** Drop the oldest queued item to make room. */
+  DROP_OLDEST,
+  /** Once the queue is half full, only admit a sample of the items, and none when it is full. */
+  SAMPLE;
+
+  public static OverflowPolicy of(String name) {
+    return name == null ? BLOCK : valueOf(name.toUpperCase(Locale.ROOT));
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers the updates that handling recent lines made, so that an identical line read from the
+ * same file is handled by making them again, without being parsed nor its labels processed. Lines
+ * that no pattern matches are remembered too, with no update.
+ *
+ * <p>Lines are looked up by hash, and compared in full on a hit. The cache holds a fixed number of
+ * lines: a line takes the place of the one with the same hash modulo the capacity. Lines longer
+ * than the given maximum are never cached.
+ */
+public final class ParseResultCache {
+
+  // Rough size of an entry, apart from the characters of its line and its updates.
+  private static final int ENTRY_OVERHEAD = 64;
+  private static final int UPDATE_SIZE = 48;
+
+  private final AtomicReferenceArray<Entry> entries;
+  private final int mask;
+  private final int maxLineLength;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final AtomicLong bytes = new AtomicLong();
+
+  public ParseResultCache(int capacity, int maxLineLength) {
+    int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+    this.entries = new AtomicReferenceArray<>(size);
+    this.mask = size - 1;
+    this.maxLineLength = maxLineLength;
+  }
+
+  /** Returns the updates made for the line when last handled, or null if not cached. */
+  public Runnable[] get(CharSequence line, String path) {
+    return get(line, path, hash(line, path));
+  }
+
+  /** Looks the line up with its {@link #hash(CharSequence, String) hash}, computed beforehand. */
+  public Runnable[] get(CharSequence line, String path, int hash) {
+    if (line.length() > maxLineLength) {
+      return null;
+    }
+    Entry entry = entries.get(hash & mask);
+    if (entry != null && entry.hash() == hash && entry.matches(line, path)) {
+      hits.increment();
+      return entry.updates();
+    }
+    misses.increment();
+    return null;
+  }
+
+  /** Caches the updates made for the line, if it is not too long. */
+  public void put(CharSequence line, String path, Runnable[] updates) {
+    put(line, path, hash(line, path), updates);
+  }
+
+  /** Caches the updates made for the line, with the hash it was looked up with. */
+  public void put(CharSequence line, String path, int hash, Runnable[] updates) {
+    if (line.length() > maxLineLength) {
+      return;
+    }
+    Entry entry = new Entry(hash, path, line.toString(), updates);
+    Entry previous = entries.getAndSet(hash & mask, entry);
+    bytes.addAndGet(entry.size() - (previous != null ? previous.size() : 0));
+  }
+
+  public void clear() {
+    for (int i = 0; i < entries.length(); i++) {
+      Entry previous = entries.getAndSet(i, null);
+      if (previous != null) {
+        bytes.addAndGet(-previous.size());
+      }
+    }
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /** Returns an estimate of the heap taken by the cached lines, in bytes. */
+  public long getBytes() {
+    return bytes.get();
+  }
+
+  /**
+   * Returns the hash the line read from the file at {@code path} is cached by, or 0 for lines too
+   * long to be cached.
+   */
+  public int hash(CharSequence line, String path) {
+    if (line.length() > maxLineLength) {
+      return 0;
+    }
+    int hash = path.hashCode();
+    for (int i = 0; i < line.length(); i++) {
+      hash = 31 * hash + line.charAt(i);
+    }
+    return hash ^ (hash >>> 16);
+  }
+
+  private record Entry(int hash, String path, String line, Runnable[] updates) {
+
+    boolean matches(CharSequence other, String otherPath) {
+      if (line.length() != other.length() || !path.equals(otherPath)) {
+        return false;
+      }
+      for (int i = 0; i < line.length(); i++) {
+        if (line.charAt(i) != other.charAt(i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    long size() {
+      return ENTRY_OVERHEAD + 2L * line.length() + (long) UPDATE_SIZE * updates.length;
+    }
+  }
+}
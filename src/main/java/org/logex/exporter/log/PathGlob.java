@@ -0,0 +1,134 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A path glob compiled segment by segment, such as {@code /var/log/app-*.log}. The leading segments
+ * without wildcards form the base directory; every other segment matches exactly one path element,
+ * except {@code **}, which matches any number of directories. Besides matching files, it tells
+ * whether a directory can contain matching files at all, so that discovery can skip whole subtrees.
+ */
+public final class PathGlob {
+
+  private final String pattern;
+  private final Path base;
+  // One matcher per segment after the base, null standing for "**".
+  private final List<PathMatcher> segments;
+
+  private PathGlob(String pattern, Path base, List<PathMatcher> segments) {
+    this.pattern = pattern;
+    this.base = base;
+    this.segments = segments;
+  }
+
+  public static PathGlob compile(String pattern) {
+    Path path = Paths.get(pattern).toAbsolutePath().normalize();
+    int count = path.getNameCount();
+    int literal = 0;
+    while (literal < count - 1 && !hasWildcard(path.getName(literal).toString())) {
+      literal++;
+    }
+    Path base = literal == 0 ? path.getRoot() : path.getRoot().resolve(path.subpath(0, literal));
+    List<PathMatcher> segments = new ArrayList<>();
+    for (int i = literal; i < count; i++) {
+      String segment = path.getName(i).toString();
+      segments.add(
+          "**".equals(segment) ? null : FileSystems.getDefault().getPathMatcher("glob:" + segment));
+    }
+    return new PathGlob(pattern, base, segments);
+  }
+
+  private static boolean hasWildcard(String segment) {
+    for (int i = 0; i < segment.length(); i++) {
+      switch (segment.charAt(i)) {
+        case '*', '?', '[', '{', '\\' -> {
+          return true;
+        }
+        default -> {}
+      }
+    }
+    return false;
+  }
+
+  /** Returns the directory under which all matching files live. */
+  public Path getBase() {
+    return base;
+  }
+
+  /** Returns whether the file matches the whole glob. */
+  public boolean matches(Path file) {
+    Path path = file.toAbsolutePath().normalize();
+    if (!path.startsWith(base) || path.equals(base)) {
+      return false;
+    }
+    return matches(base.relativize(path), 0, 0);
+  }
+
+  private boolean matches(Path relative, int name, int segment) {
+    int names = relative.getNameCount();
+    if (segment == segments.size()) {
+      return name == names;
+    }
+    PathMatcher matcher = segments.get(segment);
+    if (matcher == null) {
+      for (int next = name; next <= names; next++) {
+        if (matches(relative, next, segment + 1)) {
+          return true;
+        }
+      }
+      return false;
+    }
+    return name < names
+        && matcher.matches(relative.getName(name))
+        && matches(relative, name + 1, segment + 1);
+  }
+
+  /** Returns whether the directory or one of its descendants may contain matching files. */
+  public boolean canContain(Path directory) {
+    Path path = directory.toAbsolutePath().normalize();
+    if (base.startsWith(path)) {
+      return true; // An ancestor of the base, or the base itself
+    }
+    if (!path.startsWith(base)) {
+      return false;
+    }
+    return canContain(base.relativize(path), 0, 0);
+  }
+
+  private boolean canContain(Path relative, int name, int segment) {
+    if (segment == segments.size()) {
+      return false;
+    }
+    if (segments.get(segment) == null || name == relative.getNameCount()) {
+      // "**" absorbs any remaining directories, and otherwise segments are left for descendants.
+      return true;
+    }
+    return segments.get(segment).matches(relative.getName(name))
+        && canContain(relative, name + 1, segment + 1);
+  }
+
+  @Override
+  public String toString() {
+    return pattern;
+  }
+}
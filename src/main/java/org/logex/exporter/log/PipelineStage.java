@@ -0,0 +1,155 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+import org.logex.exporter.config.StageConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A stage of the LinePipeline: a fixed set of workers, each consuming items from its own bounded
+ * queue. Items submitted with the same key go to the same worker, so that they are processed in
+ * order. When a queue is full, the {@link OverflowPolicy} decides between waiting and dropping.
+ *
+ * <p>Depth, drop and throughput counts are not kept in batches but in the lines or events they
+ * hold, as weighed by the stage.
+ */
+public class PipelineStage<T> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PipelineStage.class);
+
+  private final String name;
+  private final OverflowPolicy policy;
+  private final long sampleEvery;
+  private final int queueCapacity;
+  private final List<BlockingQueue<T>> queues = new ArrayList<>();
+  private final ToIntFunction<T> weigher;
+  private final Consumer<T> consumer;
+  private final AtomicLong queued = new AtomicLong();
+  private final AtomicLong sampled = new AtomicLong();
+  private final LongAdder dropped = new LongAdder();
+  private final LongAdder processed = new LongAdder();
+
+  public PipelineStage(
+      String name, StageConfig config, ToIntFunction<T> weigher, Consumer<T> consumer) {
+    this.name = name;
+    this.policy = OverflowPolicy.of(config.getPolicy());
+    this.sampleEvery =
+        config.getSampleRatio() > 0 ? Math.max(1, Math.round(1 / config.getSampleRatio())) : 0;
+    this.queueCapacity = Math.max(1, config.getQueueCapacity());
+    this.weigher = weigher;
+    this.consumer = consumer;
+    int workers =
+        config.getWorkers() > 0 ? config.getWorkers() : Runtime.getRuntime().availableProcessors();
+    for (int i = 0; i < workers; i++) {
+      BlockingQueue<T> queue = new ArrayBlockingQueue<>(queueCapacity);
+      queues.add(queue);
+      Thread worker = new Thread(() -> work(queue), "pipeline-" + name + "-" + i);
+      worker.setDaemon(true);
+      worker.start();
+    }
+    LOG.info("Started {} stage with {} workers, policy {}", name, workers, policy);
+  }
+
+  /** Queues the item for the worker of the key, applying the overflow policy if it is busy. */
+  public void submit(int key, T item) {
+    BlockingQueue<T> queue = queues.get(Math.floorMod(key, queues.size()));
+    int weight = weigher.applyAsInt(item);
+    // Counted before being queued, so that the worker never sees a negative depth.
+    queued.addAndGet(weight);
+    switch (policy) {
+      case BLOCK -> {
+        try {
+          queue.put(item);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          drop(weight);
+        }
+      }
+      case DROP_OLDEST -> {
+        while (!queue.offer(item)) {
+          T oldest = queue.poll();
+          if (oldest != null) {
+            drop(weigher.applyAsInt(oldest));
+          }
+        }
+      }
+      case SAMPLE -> {
+        boolean admitted =
+            queue.size() < queueCapacity / 2
+                || (sampleEvery > 0 && sampled.getAndIncrement() % sampleEvery == 0);
+        if (!admitted || !queue.offer(item)) {
+          drop(weight);
+        }
+      }
+    }
+  }
+
+  private void drop(int weight) {
+    queued.addAndGet(-weight);
+    dropped.add(weight);
+  }
+
+  private void work(BlockingQueue<T> queue) {
+    while (true) {
+      T item;
+      try {
+        item = queue.take();
+      } catch (InterruptedException e) {
+        return;
+      }
+      int weight = weigher.applyAsInt(item);
+      queued.addAndGet(-weight);
+      try {
+        consumer.accept(item);
+      } catch (RuntimeException e) {
+        LOG.error("Error in {} stage: {}", name, e.getMessage(), e);
+      }
+      processed.add(weight);
+    }
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public OverflowPolicy getPolicy() {
+    return policy;
+  }
+
+  /** Returns the number of lines or events waiting in the queues. */
+  public long getDepth() {
+    return queued.get();
+  }
+
+  /** Returns the number of lines or events dropped by the overflow policy. */
+  public long getDropped() {
+    return dropped.sum();
+  }
+
+  /** Returns the number of lines or events processed by the workers. */
+  public long getProcessed() {
+    return processed.sum();
+  }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import java.util.Locale;
+
+/** The engine running the expressions that grok patterns compile into. */
+public enum RegexEngine {
+  /** {@code java.util.regex}, which supports every construct but backtracks. */
+  JDK,
+  /** A linear-time engine, for the patterns it supports; the others fall back to JDK. */
+  LINEAR;
+
+  public static RegexEngine of(String name) {
+    return name == null ? JDK : valueOf(name.toUpperCase(Locale.ROOT));
+  }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Finds literal substrings that every match of a {@code java.util.regex} expression contains, such
+ * as {@code "] "} and {@code " - "} in {@code \[(?<thread>.*?)\] ... - (?<message>.*)}. The
+ * analysis is conservative: optional or alternative parts contribute nothing, and constructs it
+ * does not understand make it give up on the whole expression, so a line lacking one of the
+ * literals can never match.
+ */
+final class RequiredLiterals {
+
+  static final int MIN_LENGTH = 2;
+  private static final int NONE = -1;
+  private static final String LITERAL_ESCAPES = "\\.[]{}()<>*+-=!?^$|/#&~@%,:;'\"` ";
+  private static final String CLASS_ESCAPES = "dDsSwWbBAzZGhHvVRXntrfae";
+
+  private final String regex;
+  private int pos;
+  private final Set<String> literals = new LinkedHashSet<>();
+
+  private RequiredLiterals(String regex) {
+    this.regex = regex;
+  }
+
+  /** Returns the literals required by the expression, empty when none could be found. */
+  static Set<String> of(String regex) {
+    RequiredLiterals analysis = new RequiredLiterals(regex);
+    try {
+      Sequence top = analysis.sequence();
+      if (analysis.pos < regex.length() || top.alternation) {
+        return Set.of();
+      }
+      for (String literal : top.literals) {
+        if (literal.length() >= MIN_LENGTH) {
+          analysis.literals.add(literal);
+        }
+      }
+      return analysis.literals;
+    } catch (Unsupported e) {
+      return Set.of();
+    }
+  }
+
+  /** The literals required by a sequence, unless it has alternatives. */
+  private static final class Sequence {
+    final List<String> literals = new ArrayList<>();
+    boolean alternation;
+  }
+
+  /** Parses up to the closing parenthesis of the enclosing group, or the end. */
+  private Sequence sequence() {
+    Sequence sequence = new Sequence();
+    StringBuilder run = new StringBuilder();
+    while (pos < regex.length()) {
+      char c = regex.charAt(pos);
+      if (c == ')') {
+        break;
+      }
+      if (c == '|') {
+        sequence.alternation = true;
+        pos++;
+        flush(run, sequence);
+        continue;
+      }
+      if (c == '(') {
+        flush(run, sequence);
+        pos++;
+        boolean required = groupPrefix();
+        Sequence inner = sequence();
+        if (pos >= regex.length() || regex.charAt(pos) != ')') {
+          throw new Unsupported();
+        }
+        pos++;
+        int min = quantifier();
+        if (min != 0 && required && !inner.alternation) {
+          sequence.literals.addAll(inner.literals);
+        }
+        continue;
+      }
+      if (c == '[') {
+        flush(run, sequence);
+        skipClass();
+        quantifier();
+        continue;
+      }
+      if (c == '.' || c == '^' || c == '$') {
+        flush(run, sequence);
+        pos++;
+        quantifier();
+        continue;
+      }
+      if (c == '*' || c == '+' || c == '?' || c == '{') {
+        throw new Unsupported(); // Quantifier without an atom
+      }
+      char literal;
+      if (c == '\\') {
+        if (pos + 1 >= regex.length()) {
+          throw new Unsupported();
+        }
+        char escaped = regex.charAt(pos + 1);
+        if (LITERAL_ESCAPES.indexOf(escaped) >= 0) {
+          literal = escaped;
+          pos += 2;
+        } else if (CLASS_ESCAPES.indexOf(escaped) >= 0) {
+          flush(run, sequence);
+          pos += 2;
+          quantifier();
+          continue;
+        } else {
+          throw new Unsupported(); // Escapes with arguments, back references, quoting
+        }
+      } else {
+        literal = c;
+        pos++;
+      }
+      run.append(literal);
+      if (quantifier() != NONE) {
+        // A repeated or optional character ends the run and is not required itself.
+        run.setLength(run.length() - 1);
+        flush(run, sequence);
+      }
+    }
+    flush(run, sequence);
+    return sequence;
+  }
+
+  private void flush(StringBuilder run, Sequence sequence) {
+    if (run.length() > 0) {
+      sequence.literals.add(run.toString());
+      run.setLength(0);
+    }
+  }
+
+  /**
+   * Consumes what follows the opening parenthesis of a group up to its content, and returns whether
+   * the content must match for the expression to match.
+   */
+  private boolean groupPrefix() {
+    if (pos >= regex.length() || regex.charAt(pos) != '?') {
+      return true; // Capturing group
+    }
+    pos++;
+    if (pos >= regex.length()) {
+      throw new Unsupported();
+    }
+    char kind = regex.charAt(pos);
+    if (kind == ':' || kind == '>') {
+      pos++;
+      return true;
+    }
+    if (kind == '=' || kind == '!') {
+      pos++;
+      return false; // Lookahead
+    }
+    if (kind == '<') {
+      pos++;
+      if (pos < regex.length() && (regex.charAt(pos) == '=' || regex.charAt(pos) == '!')) {
+        pos++;
+        return false; // Lookbehind
+      }
+      int end = regex.indexOf('>', pos);
+      if (end < 0) {
+        throw new Unsupported();
+      }
+      pos = end + 1;
+      return true; // Named group
+    }
+    throw new Unsupported(); // Inline flags may change how literals match
+  }
+
+  /**
+   * Consumes the quantifier at the current position, if any, and returns its minimum count, or
+   * {@link #NONE} without quantifier.
+   */
+  private int quantifier() {
+    if (pos >= regex.length()) {
+      return NONE;
+    }
+    char c = regex.charAt(pos);
+    int min;
+    if (c == '*' || c == '?') {
+      min = 0;
+      pos++;
+    } else if (c == '+') {
+      min = 1;
+      pos++;
+    } else if (c == '{') {
+      int end = regex.indexOf('}', pos);
+      if (end < 0) {
+        throw new Unsupported();
+      }
+      String bounds = regex.substring(pos + 1, end);
+      int comma = bounds.indexOf(',');
+      try {
+        min = Integer.parseInt(comma < 0 ? bounds : bounds.substring(0, comma));
+      } catch (NumberFormatException e) {
+        throw new Unsupported();
+      }
+      pos = end + 1;
+    } else {
+      return NONE;
+    }
+    if (pos < regex.length() && (regex.charAt(pos) == '?' || regex.charAt(pos) == '+')) {
+      pos++; // Lazy or possessive
+    }
+    return min;
+  }
+
+  /** Skips a character class, including nested classes. */
+  private void skipClass() {
+    int depth = 0;
+    while (pos < regex.length()) {
+      char c = regex.charAt(pos);
+      if (c == '\\') {
+        pos += 2;
+        continue;
+      }
+      if (c == '[') {
+        depth++;
+        // A closing bracket right after the opening one is a literal.
+        if (pos + 1 < regex.length() && regex.charAt(pos + 1) == ']') {
+          pos++;
+        } else if (pos + 2 < regex.length()
+            && regex.charAt(pos + 1) == '^'
+            && regex.charAt(pos + 2) == ']') {
+          pos += 2;
+        }
+      } else if (c == ']') {
+        depth--;
+        if (depth == 0) {
+          pos++;
+          return;
+        }
+      }
+      pos++;
+    }
+    throw new Unsupported();
+  }
+
+  private static final class Unsupported extends RuntimeException {
+    Unsupported() {
+      super(null, null, false, false);
+    }
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Appends lines whose match timed out to a debug file, along with their pattern, so that the
+ * pattern can be fixed. At most one line is sampled per second, and lines are truncated to {@value
+ * #MAX_LENGTH} characters, so that a flood of such lines cannot fill the disk.
+ */
+public class TimeoutSampler {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TimeoutSampler.class);
+  static final int MAX_LENGTH = 16 * 1024;
+  private static final long INTERVAL_NANOS = 1_000_000_000L;
+
+  private final Path file;
+  private final AtomicLong lastSampled = new AtomicLong(System.nanoTime() - INTERVAL_NANOS);
+
+  public TimeoutSampler(Path file) {
+    this.file = file;
+  }
+
+  /** Samples the line, unless another one was sampled less than a second ago. */
+  public void sample(String pattern, CharSequence line) {
+    long now = System.nanoTime();
+    long last = lastSampled.get();
+    if (now - last < INTERVAL_NANOS || !lastSampled.compareAndSet(last, now)) {
+      return;
+    }
+    String text =
+        line.length() > MAX_LENGTH ? line.subSequence(0, MAX_LENGTH) + "..." : line.toString();
+    try {
+      Files.writeString(
+          file,
+          pattern + "\t" + text + "\n",
+          StandardCharsets.UTF_8,
+          StandardOpenOption.CREATE,
+          StandardOpenOption.APPEND);
+    } catch (IOException e) {
+      LOG.warn("Error sampling a line that timed out to {}: {}", file, e.getMessage());
+    }
+  }
+}
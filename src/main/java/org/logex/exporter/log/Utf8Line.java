@@ -0,0 +1,113 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A reusable {@link CharSequence} view over the UTF-8 bytes of one line. ASCII lines are read
+ * straight from the underlying buffer; other lines are decoded lazily, the first time their
+ * characters are accessed. Only {@link #subSequence} and {@link #toString} create Strings.
+ *
+ * <p>The view is only valid until it is reset to the next line, so it must not be retained.
+ */
+public final class Utf8Line implements CharSequence {
+
+  private final CharsetDecoder decoder =
+      StandardCharsets.UTF_8
+          .newDecoder()
+          .onMalformedInput(CodingErrorAction.REPLACE)
+          .onUnmappableCharacter(CodingErrorAction.REPLACE);
+  private ByteBuffer buffer;
+  private int offset;
+  private int byteLength;
+  private boolean ascii;
+  private CharBuffer decoded = CharBuffer.allocate(256);
+  private boolean decodedValid;
+  private byte[] scratch = new byte[256];
+
+  /** Points this view at bytes {@code [start, end)} of the buffer. */
+  public Utf8Line reset(ByteBuffer buffer, int start, int end, boolean ascii) {
+    this.buffer = buffer;
+    this.offset = start;
+    this.byteLength = end - start;
+    this.ascii = ascii;
+    this.decodedValid = false;
+    return this;
+  }
+
+  public boolean isAscii() {
+    return ascii;
+  }
+
+  @Override
+  public int length() {
+    return ascii ? byteLength : decoded().limit();
+  }
+
+  @Override
+  public char charAt(int index) {
+    if (ascii) {
+      if (index < 0 || index >= byteLength) {
+        throw new IndexOutOfBoundsException(index);
+      }
+      return (char) buffer.get(offset + index);
+    }
+    return decoded().get(index);
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    if (!ascii) {
+      return decoded().subSequence(start, end).toString();
+    }
+    if (start < 0 || end > byteLength || start > end) {
+      throw new IndexOutOfBoundsException("[" + start + ", " + end + ")");
+    }
+    int length = end - start;
+    if (scratch.length < length) {
+      scratch = new byte[Math.max(length, scratch.length * 2)];
+    }
+    buffer.get(offset + start, scratch, 0, length);
+    return new String(scratch, 0, length, StandardCharsets.ISO_8859_1);
+  }
+
+  @Override
+  public String toString() {
+    return subSequence(0, length()).toString();
+  }
+
+  private CharBuffer decoded() {
+    if (!decodedValid) {
+      ByteBuffer bytes = buffer.slice(offset, byteLength);
+      int capacity = (int) (byteLength * (double) decoder.maxCharsPerByte());
+      if (decoded.capacity() < capacity) {
+        decoded = CharBuffer.allocate(capacity);
+      }
+      decoded.clear();
+      decoder.reset();
+      decoder.decode(bytes, decoded, true);
+      decoder.flush(decoded);
+      decoded.flip();
+      decodedValid = true;
+    }
+    return decoded;
+  }
+}
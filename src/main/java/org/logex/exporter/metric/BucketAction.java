@@ -0,0 +1,62 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.metric;
+
+import io.prometheus.client.Collector;
+import java.util.List;
+import org.logex.exporter.config.LabelConfig;
+
+/**
+ * Replaces a numeric value with the smallest of the buckets, sorted upper bounds, that it does not
+ * exceed, or +Inf above all of them, formatted as the le label of a histogram. Values that are not
+ * numbers have no bucket.
+ */
+public class BucketAction extends NativeAction {
+  @Override
+  public NativeTransform compile(LabelConfig config) {
+    List<Double> buckets = config.getBuckets();
+    if (buckets == null || buckets.isEmpty()) {
+      throw misconfigured(config, "buckets are required");
+    }
+    double[] bounds = new double[buckets.size()];
+    String[] names = new String[bounds.length + 1];
+    for (int i = 0; i < bounds.length; i++) {
+      bounds[i] = buckets.get(i);
+      if (i > 0 && bounds[i] <= bounds[i - 1]) {
+        throw misconfigured(config, "buckets must be in increasing order");
+      }
+      names[i] = Collector.doubleToGoString(bounds[i]);
+    }
+    names[bounds.length] = Collector.doubleToGoString(Double.POSITIVE_INFINITY);
+    return (value, out) -> {
+      double number;
+      try {
+        number = Double.parseDouble(value.toString());
+      } catch (NumberFormatException e) {
+        return false;
+      }
+      if (Double.isNaN(number)) {
+        return false;
+      }
+      int i = 0;
+      while (i < bounds.length && number > bounds[i]) {
+        i++;
+      }
+      out.append(names[i]);
+      return true;
+    };
+  }
+}
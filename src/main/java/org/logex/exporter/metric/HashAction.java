@@ -0,0 +1,80 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.metric;
+
+import org.logex.exporter.config.LabelConfig;
+
+/**
+ * Replaces the value with the 32-bit FNV-1a hash of its UTF-8 bytes, in hexadecimal, or with the
+ * hash modulo hash_modulo when set, such as to spread users over a fixed number of label values.
+ */
+public class HashAction extends NativeAction {
+
+  private static final int FNV_OFFSET = 0x811c9dc5;
+  private static final int FNV_PRIME = 0x01000193;
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  @Override
+  public NativeTransform compile(LabelConfig config) {
+    Integer modulo = config.getHashModulo();
+    if (modulo != null && modulo <= 0) {
+      throw misconfigured(config, "hash_modulo must be positive");
+    }
+    return (value, out) -> {
+      int hash = hash(value);
+      if (modulo != null) {
+        out.append(Integer.remainderUnsigned(hash, modulo));
+      } else {
+        for (int shift = 28; shift >= 0; shift -= 4) {
+          out.append(HEX[(hash >>> shift) & 0xf]);
+        }
+      }
+      return true;
+    };
+  }
+
+  /**
+   * Hashes the UTF-8 encoding of the value, encoded on the fly. Unpaired surrogates are encoded as
+   * '?', as {@link String#getBytes} does.
+   */
+  static int hash(CharSequence value) {
+    int hash = FNV_OFFSET;
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c < 0x80) {
+        hash = (hash ^ c) * FNV_PRIME;
+      } else if (c < 0x800) {
+        hash = (hash ^ (0xc0 | c >>> 6)) * FNV_PRIME;
+        hash = (hash ^ (0x80 | c & 0x3f)) * FNV_PRIME;
+      } else if (!Character.isSurrogate(c)) {
+        hash = (hash ^ (0xe0 | c >>> 12)) * FNV_PRIME;
+        hash = (hash ^ (0x80 | c >>> 6 & 0x3f)) * FNV_PRIME;
+        hash = (hash ^ (0x80 | c & 0x3f)) * FNV_PRIME;
+      } else if (Character.isHighSurrogate(c)
+          && i + 1 < value.length()
+          && Character.isLowSurrogate(value.charAt(i + 1))) {
+        int codePoint = Character.toCodePoint(c, value.charAt(++i));
+        hash = (hash ^ (0xf0 | codePoint >>> 18)) * FNV_PRIME;
+        hash = (hash ^ (0x80 | codePoint >>> 12 & 0x3f)) * FNV_PRIME;
+        hash = (hash ^ (0x80 | codePoint >>> 6 & 0x3f)) * FNV_PRIME;
+        hash = (hash ^ (0x80 | codePoint & 0x3f)) * FNV_PRIME;
+      } else {
+        hash = (hash ^ '?') * FNV_PRIME;
+      }
+    }
+    return hash;
+  }
+}
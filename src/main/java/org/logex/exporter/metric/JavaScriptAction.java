@@ -15,33 +15,162 @@
  */
 package org.logex.exporter.metric;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.Source;
 import org.graalvm.polyglot.Value;
 import org.logex.exporter.config.LabelConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Transforms a label value with a JavaScript function body. All scripts run on one shared polyglot
+ * {@link Engine}, which parses each script once and keeps the code it compiled across calls. Calls
+ * borrow a context from a pool, which is used by one thread at a time and keeps the function of
+ * every script it already evaluated, so that a call only executes the function. At most {@link
+ * #MAX_IDLE_CONTEXTS} contexts are kept in the pool, the others are closed once used.
+ */
 public class JavaScriptAction implements LabelAction {
   private static final Logger logger = LoggerFactory.getLogger(JavaScriptAction.class);
+  static final int MAX_IDLE_CONTEXTS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+  // Created on first use, so that configurations without scripts do not start an engine.
+  private volatile Engine engine;
+  private final Map<String, Source> sources = new ConcurrentHashMap<>();
+  private final Queue<ScriptContext> pool = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger idle = new AtomicInteger();
 
   @Override
   public String process(String value, LabelConfig config) {
     if (config.getScript() == null || config.getScript().isEmpty()) {
       return value;
     }
+    try {
+      return execute(source(config.getScript()), value);
+    } catch (LabelTransformException e) {
+      return e.getFallback();
+    }
+  }
+
+  @Override
+  public boolean isExpensive() {
+    return true;
+  }
 
-    try (Context context = Context.create("js")) {
-      Value jsFunction = context.eval("js", "(function(value) { " + config.getScript() + " })");
-      Value result = jsFunction.execute(value);
+  /**
+   * Runs the script on the value. Throws LabelTransformException, with the value as fallback, if
+   * the script fails.
+   */
+  private String execute(Source source, String value) {
+    ScriptContext context = null;
+    boolean reusable = true;
+    try {
+      context = borrow();
+      Value result = context.function(source).execute(value);
       if (result.isNull()) {
         logger.warn("JavaScript action did not return a string value.");
         return value;
       } else {
         return result.toString();
       }
+    } catch (PolyglotException e) {
+      // A script that exited or was cancelled leaves its context unusable.
+      reusable = !e.isExit() && !e.isCancelled() && !e.isInternalError();
+      logger.error("Error executing JavaScript action", e);
+      throw new LabelTransformException(value, e);
     } catch (Exception e) {
       logger.error("Error executing JavaScript action", e);
-      return value;
+      throw new LabelTransformException(value, e);
+    } finally {
+      if (context != null) {
+        release(context, reusable);
+      }
+    }
+  }
+
+  /**
+   * Parses and evaluates the script once, so that a script with a syntax error fails when the
+   * configuration is loaded, and binds its source.
+   */
+  @Override
+  public LabelTransform compile(LabelConfig config) {
+    if (config.getScript() == null || config.getScript().isEmpty()) {
+      return LabelTransform.IDENTITY;
+    }
+    Source source = source(config.getScript());
+    ScriptContext context = borrow();
+    try {
+      context.function(source);
+    } catch (PolyglotException e) {
+      throw new IllegalArgumentException(
+          "Invalid script for label " + config.getName() + ": " + e.getMessage(), e);
+    } finally {
+      release(context, true);
+    }
+    return value -> execute(source, value);
+  }
+
+  private ScriptContext borrow() {
+    ScriptContext context = pool.poll();
+    if (context != null) {
+      idle.decrementAndGet();
+      return context;
+    }
+    return new ScriptContext(Context.newBuilder("js").engine(engine()).build());
+  }
+
+  /** Returns the context to the pool, or closes it if it is unusable or the pool is full. */
+  private void release(ScriptContext context, boolean reusable) {
+    if (reusable && idle.incrementAndGet() <= MAX_IDLE_CONTEXTS) {
+      pool.offer(context);
+      return;
+    }
+    if (reusable) {
+      idle.decrementAndGet();
+    }
+    context.context().close(true);
+  }
+
+  /** Returns the number of contexts kept in the pool. */
+  int getIdleContexts() {
+    return idle.get();
+  }
+
+  private Engine engine() {
+    Engine current = engine;
+    if (current == null) {
+      synchronized (this) {
+        current = engine;
+        if (current == null) {
+          current = Engine.create("js");
+          engine = current;
+        }
+      }
+    }
+    return current;
+  }
+
+  private Source source(String script) {
+    return sources.computeIfAbsent(
+        script, s -> Source.create("js", "(function(value) { " + s + " })"));
+  }
+
+  /** A context with the functions of the scripts it evaluated. */
+  private record ScriptContext(Context context, Map<Source, Value> functions) {
+
+    ScriptContext(Context context) {
+      this(context, new HashMap<>());
+    }
+
+    Value function(Source source) {
+      return functions.computeIfAbsent(source, context::eval);
     }
   }
 }
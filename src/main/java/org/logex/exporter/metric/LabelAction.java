@@ -19,4 +19,17 @@ import org.logex.exporter.config.LabelConfig;
 
 public interface LabelAction {
   String process(String value, LabelConfig config);
+
+  /**
+   * Compiles the action for the label, once when the configuration is loaded. Throws
+   * IllegalArgumentException if the label is misconfigured for the action.
+   */
+  default LabelTransform compile(LabelConfig config) {
+    return value -> process(value, config);
+  }
+
+  /** Returns whether the action costs enough for its outputs to be memoized by default. */
+  default boolean isExpensive() {
+    return false;
+  }
 }
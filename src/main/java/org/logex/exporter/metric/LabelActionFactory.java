@@ -23,11 +23,33 @@ public class LabelActionFactory {
   private static final LabelAction noOpAction = new NoOpAction();
 
   static {
+    actions.put("none", noOpAction);
+    actions.put("NO_OP", noOpAction);
     actions.put("regex_replace", new RegexReplaceAction());
     actions.put("js", new JavaScriptAction());
+    actions.put("substring_before", new SubstringBeforeAction());
+    actions.put("substring_after", new SubstringAfterAction());
+    actions.put("lowercase", new LowercaseAction());
+    actions.put("uppercase", new UppercaseAction());
+    actions.put("truncate", new TruncateAction());
+    actions.put("bucket", new BucketAction());
+    actions.put("hash", new HashAction());
+    actions.put("lookup", new LookupAction());
   }
 
+  /**
+   * Returns the action of the given name, or the no-op action if null. Throws
+   * IllegalArgumentException for an unknown name, so that a misspelled action fails when the
+   * configuration is loaded instead of leaving the label unchanged.
+   */
   public static LabelAction getAction(String action) {
-    return actions.getOrDefault(action, noOpAction);
+    if (action == null) {
+      return noOpAction;
+    }
+    LabelAction found = actions.get(action);
+    if (found == null) {
+      throw new IllegalArgumentException("Unknown label action: " + action);
+    }
+    return found;
   }
 }
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.metric;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.logex.exporter.config.LabelConfig;
+
+/**
+ * Runs the native actions of the steps of a label in sequence. Intermediate values go through two
+ * builders of the current thread, each step reading the output of the previous one, so that only
+ * the final value becomes a string.
+ */
+final class LabelChain implements NativeTransform {
+
+  private static final ThreadLocal<StringBuilder[]> SCRATCH =
+      ThreadLocal.withInitial(
+          () -> new StringBuilder[] {new StringBuilder(64), new StringBuilder(64)});
+
+  private final NativeTransform[] steps;
+
+  private LabelChain(NativeTransform[] steps) {
+    this.steps = steps;
+  }
+
+  /**
+   * Compiles the steps of the label. Throws IllegalArgumentException if the label also has an
+   * action, or if a step is misconfigured, does nothing, or is not a native action.
+   */
+  static LabelTransform compile(LabelConfig config) {
+    if (config.getAction() != null) {
+      throw new IllegalArgumentException(
+          "Label " + config.getName() + " cannot have both an action and steps");
+    }
+    List<NativeTransform> steps = new ArrayList<>();
+    for (int i = 0; i < config.getSteps().size(); i++) {
+      String name = "Step " + (i + 1) + " of label " + config.getName();
+      LabelConfig step = config.getSteps().get(i);
+      if (step.getSteps() != null) {
+        throw new IllegalArgumentException(name + " cannot have steps");
+      }
+      LabelTransform transform;
+      try {
+        transform = LabelActionFactory.getAction(step.getAction()).compile(step);
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException(name + ": " + e.getMessage(), e);
+      }
+      if (transform == LabelTransform.IDENTITY) {
+        // Such as a missing action, or a regex_replace without a regex.
+        throw new IllegalArgumentException(name + " does nothing");
+      }
+      if (!(transform instanceof NativeTransform nativeTransform)) {
+        throw new IllegalArgumentException(
+            name + " cannot run action " + step.getAction() + ": steps only run native actions");
+      }
+      steps.add(nativeTransform);
+    }
+    return switch (steps.size()) {
+      case 0 -> LabelTransform.IDENTITY;
+      case 1 -> steps.get(0);
+      default -> new LabelChain(steps.toArray(new NativeTransform[0]));
+    };
+  }
+
+  @Override
+  public boolean apply(CharSequence value, StringBuilder out) {
+    StringBuilder[] scratch = SCRATCH.get();
+    CharSequence current = value;
+    int last = steps.length - 1;
+    for (int i = 0; i < last; i++) {
+      StringBuilder next = scratch[i & 1];
+      next.setLength(0);
+      if (!steps[i].apply(current, next)) {
+        return false;
+      }
+      current = next;
+    }
+    return steps[last].apply(current, out);
+  }
+}
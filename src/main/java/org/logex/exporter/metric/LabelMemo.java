@@ -0,0 +1,79 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.metric;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Remembers the outputs of the transform of a label for its most recent inputs, so that a value
+ * seen before is not transformed again. Only fits transforms that return the same output for the
+ * same input.
+ */
+public final class LabelMemo implements LabelTransform {
+
+  /** The size of the memo of labels with an expensive action and no memo_size. */
+  public static final int DEFAULT_SIZE = 1024;
+
+  private final String metric;
+  private final String label;
+  private final LabelTransform transform;
+  private final Cache<String, String> cache;
+
+  public LabelMemo(String metric, String label, int size, LabelTransform transform) {
+    this.metric = metric;
+    this.label = label;
+    this.transform = transform;
+    this.cache =
+        Caffeine.newBuilder().maximumSize(size).executor(Runnable::run).recordStats().build();
+  }
+
+  @Override
+  public String apply(String value) {
+    if (value == null) {
+      return transform.apply(null);
+    }
+    // Null outputs are not remembered, and neither are failures, which propagate.
+    return cache.get(value, transform::apply);
+  }
+
+  public String getMetric() {
+    return metric;
+  }
+
+  public String getLabel() {
+    return label;
+  }
+
+  public long getHits() {
+    return cache.stats().hitCount();
+  }
+
+  public long getMisses() {
+    return cache.stats().missCount();
+  }
+
+  public long getEvictions() {
+    return cache.stats().evictionCount();
+  }
+
+  /** Returns the ratio of the inputs that were found in the memo. */
+  public double getHitRatio() {
+    CacheStats stats = cache.stats();
+    return stats.requestCount() > 0 ? stats.hitRate() : 0;
+  }
+}
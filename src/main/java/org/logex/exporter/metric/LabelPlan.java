@@ -0,0 +1,124 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.metric;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.logex.exporter.config.LabelConfig;
+import org.logex.exporter.config.MetricConfig;
+import org.logex.exporter.log.EventSchema;
+import org.logex.exporter.log.LogEvent;
+
+/**
+ * The labels of a metric compiled once, when the configuration is loaded: the action of every label
+ * resolved and compiled, and its default value bound. Once bound to an {@link EventSchema}, the
+ * source fields are read from the slots of events. A plan is immutable, so that it can be shared by
+ * every thread handling events.
+ */
+public final class LabelPlan {
+
+  private final Label[] labels;
+  private final int[] slots;
+
+  private LabelPlan(Label[] labels, int[] slots) {
+    this.labels = labels;
+    this.slots = slots;
+  }
+
+  /**
+   * Compiles the labels of the metric. Throws IllegalArgumentException if a label is misconfigured,
+   * such as with an invalid regex or script.
+   *
+   * <p>A label with steps runs their native actions in sequence instead of its action.
+   *
+   * <p>The outputs of a label are memoized when it sets a positive memo_size, or when it sets none
+   * and its action is expensive.
+   */
+  public static LabelPlan compile(MetricConfig config) {
+    List<LabelConfig> labelConfigs = config.getLabels();
+    Label[] labels = new Label[labelConfigs.size()];
+    for (int i = 0; i < labels.length; i++) {
+      LabelConfig lc = labelConfigs.get(i);
+      LabelAction action = LabelActionFactory.getAction(lc.getAction());
+      LabelTransform transform =
+          lc.getSteps() != null ? LabelChain.compile(lc) : action.compile(lc);
+      int memoSize =
+          lc.getMemoSize() != null
+              ? lc.getMemoSize()
+              : action.isExpensive() ? LabelMemo.DEFAULT_SIZE : 0;
+      if (memoSize > 0 && transform != LabelTransform.IDENTITY) {
+        transform = new LabelMemo(config.getName(), lc.getName(), memoSize, transform);
+      }
+      labels[i] = new Label(lc.getSourceField(), lc.getDefaultValue(), transform);
+    }
+    return new LabelPlan(labels, null);
+  }
+
+  /** Returns this plan reading the source fields from the slots of the schema. */
+  public LabelPlan bind(EventSchema schema) {
+    return new LabelPlan(
+        labels,
+        Arrays.stream(labels).mapToInt(label -> schema.slot(label.sourceField())).toArray());
+  }
+
+  public boolean isBound() {
+    return slots != null;
+  }
+
+  /** Returns the memos of the labels whose outputs are memoized. */
+  public List<LabelMemo> getMemos() {
+    List<LabelMemo> memos = new ArrayList<>();
+    for (Label label : labels) {
+      if (label.transform() instanceof LabelMemo memo) {
+        memos.add(memo);
+      }
+    }
+    return memos;
+  }
+
+  /** Returns the label values of an event of the schema the plan is bound to. */
+  public List<String> labels(LogEvent event) {
+    List<String> labelValues = new ArrayList<>(labels.length);
+    for (int i = 0; i < labels.length; i++) {
+      labelValues.add(labels[i].apply(event.get(slots[i])));
+    }
+    return labelValues;
+  }
+
+  public List<String> labels(Map<String, String> data) {
+    List<String> labelValues = new ArrayList<>(labels.length);
+    for (Label label : labels) {
+      labelValues.add(label.apply(data.get(label.sourceField())));
+    }
+    return labelValues;
+  }
+
+  private record Label(String sourceField, String defaultValue, LabelTransform transform) {
+
+    String apply(String value) {
+      String input = value != null ? value : defaultValue;
+      String transformed;
+      try {
+        transformed = transform.apply(input);
+      } catch (LabelTransformException e) {
+        transformed = e.getFallback();
+      }
+      return transformed != null ? transformed : "";
+    }
+  }
+}
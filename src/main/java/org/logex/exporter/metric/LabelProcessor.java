@@ -1,37 +0,0 @@
-/*
- * Copyright 2025 loyispa
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *     http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package org.logex.exporter.metric;
-
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import org.logex.exporter.config.LabelConfig;
-import org.logex.exporter.config.MetricConfig;
-
-/** Processes metric labels based on the provided configuration. */
-public class LabelProcessor {
-  public static List<String> processLabels(Map<String, String> logData, MetricConfig config) {
-    List<LabelConfig> labelConfigs = config.getLabels();
-    List<String> labelValues = new ArrayList<>();
-    for (LabelConfig lc : labelConfigs) {
-      String value = logData.getOrDefault(lc.getSourceField(), lc.getDefaultValue());
-      LabelAction action = LabelActionFactory.getAction(lc.getAction());
-      value = action.process(value, lc);
-      labelValues.add(value != null ? value : "");
-    }
-    return labelValues;
-  }
-}
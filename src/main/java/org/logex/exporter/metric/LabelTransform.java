@@ -0,0 +1,28 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.metric;
+
+/** A label action compiled for the configuration of one label. */
+@FunctionalInterface
+public interface LabelTransform {
+  LabelTransform IDENTITY = value -> value;
+
+  /**
+   * Returns the transformed value. Throws LabelTransformException if the transform failed on the
+   * value, with the value to use instead.
+   */
+  String apply(String value);
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.metric;
+
+/**
+ * Thrown by a {@link LabelTransform} that failed on a value, such as a script that threw, with the
+ * value to use instead. Its outcome is not memoized, so that the value is transformed again next
+ * time.
+ */
+public class LabelTransformException extends RuntimeException {
+
+  private final String fallback;
+
+  public LabelTransformException(String fallback, Throwable cause) {
+    super(cause.getMessage(), cause, false, false);
+    this.fallback = fallback;
+  }
+
+  public String getFallback() {
+    return fallback;
+  }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.metric;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.logex.exporter.config.LabelConfig;
+
+/**
+ * Replaces the value with its entry in the table, or with lookup_default when it has none. Without
+ * a lookup_default, values missing from the table are kept.
+ */
+public class LookupAction extends NativeAction {
+  @Override
+  public NativeTransform compile(LabelConfig config) {
+    if (config.getTable() == null) {
+      throw misconfigured(config, "table is required");
+    }
+    Map<String, String> table = new HashMap<>(config.getTable());
+    String fallback = config.getLookupDefault();
+    return (value, out) -> {
+      String mapped = table.get(value instanceof String s ? s : value.toString());
+      if (mapped != null) {
+        out.append(mapped);
+      } else if (fallback != null) {
+        out.append(fallback);
+      } else {
+        out.append(value);
+      }
+      return true;
+    };
+  }
+}
@@ -20,7 +20,9 @@ import io.prometheus.client.exporter.HTTPServer;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import org.logex.exporter.config.AppConfig;
 import org.logex.exporter.config.LabelConfig;
 import org.logex.exporter.config.MetricConfig;
@@ -35,10 +37,12 @@ public class MetricsManager {
   private final CollectorRegistry registry;
   private final AppConfig config;
   private final List<LogHandler> logHandlers = new ArrayList<>();
+  private final List<LabelMemo> labelMemos = new ArrayList<>();
 
   public MetricsManager(AppConfig config, LogTailerManager tailer) {
     this.config = config;
     this.registry = new CollectorRegistry();
+    new SelfMetrics(tailer, labelMemos).register(registry);
     for (MetricConfig metric : config.getMetrics()) {
       // Ensure labels list is not null
       if (metric.getLabels() == null) {
@@ -59,9 +63,35 @@ public class MetricsManager {
       }
 
       LogHandler handler = LogHandlerFactory.createHandler(metric, registry);
-      tailer.register(metric.getMatch(), handler);
+      tailer.register(
+          metric.getFormat(),
+          metric.getMatch(),
+          metric.getRegexEngine(),
+          usedFields(metric),
+          metric.getExclusiveGroup(),
+          handler);
       logHandlers.add(handler);
+      if (handler instanceof MetricHandler metricHandler) {
+        labelMemos.addAll(metricHandler.getLabelPlan().getMemos());
+      }
+    }
+  }
+
+  /**
+   * Returns the fields of the parsed lines that the metric reads. Labels without a source_field
+   * read none and always take their default_value.
+   */
+  private static Set<String> usedFields(MetricConfig metric) {
+    Set<String> fields = new HashSet<>();
+    for (LabelConfig label : metric.getLabels()) {
+      if (label.getSourceField() != null) {
+        fields.add(label.getSourceField());
+      }
+    }
+    if (metric.getValueField() != null) {
+      fields.add(metric.getValueField());
     }
+    return fields;
   }
 
   public void start() throws IOException {
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.metric;
+
+import org.logex.exporter.config.LabelConfig;
+
+/** A label action implemented in Java, compiled into a {@link NativeTransform}. */
+public abstract class NativeAction implements LabelAction {
+
+  private static final ThreadLocal<StringBuilder> BUFFER =
+      ThreadLocal.withInitial(() -> new StringBuilder(64));
+
+  @Override
+  public String process(String value, LabelConfig config) {
+    return compile(config).apply(value);
+  }
+
+  @Override
+  public abstract NativeTransform compile(LabelConfig config);
+
+  /** Returns the emptied builder of the current thread. */
+  static StringBuilder buffer() {
+    StringBuilder buffer = BUFFER.get();
+    buffer.setLength(0);
+    return buffer;
+  }
+
+  static IllegalArgumentException misconfigured(LabelConfig config, String message) {
+    String label = config.getName() != null ? " for label " + config.getName() : "";
+    return new IllegalArgumentException(
+        "Invalid " + config.getAction() + " action" + label + ": " + message);
+  }
+
+  static int indexOf(CharSequence value, String delimiter, int from) {
+    int last = value.length() - delimiter.length();
+    char first = delimiter.charAt(0);
+    for (int i = from; i <= last; i++) {
+      if (value.charAt(i) == first && regionMatches(value, i, delimiter)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean regionMatches(CharSequence value, int offset, String delimiter) {
+    for (int i = 1; i < delimiter.length(); i++) {
+      if (value.charAt(offset + i) != delimiter.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
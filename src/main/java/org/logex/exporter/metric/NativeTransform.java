@@ -0,0 +1,40 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.metric;
+
+/**
+ * A label transform implemented in Java, which reads its input as a {@link CharSequence} and
+ * appends its output to a builder, so that it allocates no intermediate strings.
+ */
+@FunctionalInterface
+public interface NativeTransform extends LabelTransform {
+
+  /** Appends the transformed value to {@code out}. Returns false if there is none. */
+  boolean apply(CharSequence value, StringBuilder out);
+
+  @Override
+  default String apply(String value) {
+    if (value == null) {
+      return null;
+    }
+    StringBuilder out = NativeAction.buffer();
+    if (!apply(value, out)) {
+      return null;
+    }
+    // An unchanged value is returned as is rather than copied.
+    return out.length() == value.length() && value.contentEquals(out) ? value : out.toString();
+  }
+}
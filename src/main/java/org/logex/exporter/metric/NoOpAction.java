@@ -22,4 +22,9 @@ public class NoOpAction implements LabelAction {
   public String process(String value, LabelConfig config) {
     return value;
   }
+
+  @Override
+  public LabelTransform compile(LabelConfig config) {
+    return LabelTransform.IDENTITY;
+  }
 }
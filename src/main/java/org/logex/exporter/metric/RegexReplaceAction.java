@@ -15,7 +15,9 @@
  */
 package org.logex.exporter.metric;
 
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 import org.logex.exporter.config.LabelConfig;
 
 public class RegexReplaceAction implements LabelAction {
@@ -29,4 +31,35 @@ public class RegexReplaceAction implements LabelAction {
     }
     return value;
   }
+
+  /**
+   * Compiles the regex once, and replaces with a matcher of it reused by each thread, appending the
+   * result to the builder of the caller.
+   */
+  @Override
+  public LabelTransform compile(LabelConfig config) {
+    if (config.getRegex() == null
+        || config.getReplacement() == null
+        || config.getRegex().isEmpty()) {
+      return LabelTransform.IDENTITY;
+    }
+    Pattern pattern;
+    try {
+      pattern = Pattern.compile(config.getRegex());
+    } catch (PatternSyntaxException e) {
+      String label = config.getName() != null ? " for label " + config.getName() : "";
+      throw new IllegalArgumentException("Invalid regex" + label + ": " + e.getMessage(), e);
+    }
+    String replacement = config.getReplacement();
+    ThreadLocal<Matcher> matchers = ThreadLocal.withInitial(() -> pattern.matcher(""));
+    return (NativeTransform)
+        (value, out) -> {
+          Matcher matcher = matchers.get().reset(value);
+          while (matcher.find()) {
+            matcher.appendReplacement(out, replacement);
+          }
+          matcher.appendTail(out);
+          return true;
+        };
+  }
 }
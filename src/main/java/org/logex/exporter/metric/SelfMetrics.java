@@ -0,0 +1,168 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.metric;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CounterMetricFamily;
+import io.prometheus.client.GaugeMetricFamily;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.logex.exporter.log.ExclusiveGroup;
+import org.logex.exporter.log.LinePipeline;
+import org.logex.exporter.log.LogTailerManager;
+import org.logex.exporter.log.ParseResultCache;
+import org.logex.exporter.log.PipelineStage;
+
+/** Exports the state of the exporter itself, read from its components on every scrape. */
+public class SelfMetrics extends Collector {
+
+  private final LogTailerManager tailerManager;
+  private final List<LabelMemo> labelMemos;
+
+  public SelfMetrics(LogTailerManager tailerManager) {
+    this(tailerManager, List.of());
+  }
+
+  public SelfMetrics(LogTailerManager tailerManager, List<LabelMemo> labelMemos) {
+    this.tailerManager = tailerManager;
+    this.labelMemos = labelMemos;
+  }
+
+  @Override
+  public List<MetricFamilySamples> collect() {
+    List<MetricFamilySamples> samples = new ArrayList<>();
+    LinePipeline pipeline = tailerManager.getPipeline();
+    if (pipeline != null) {
+      List<String> labels = List.of("stage");
+      GaugeMetricFamily depth =
+          new GaugeMetricFamily(
+              "logex_pipeline_queue_depth", "Lines or events waiting in a pipeline stage.", labels);
+      CounterMetricFamily dropped =
+          new CounterMetricFamily(
+              "logex_pipeline_dropped_total",
+              "Lines or events dropped by the overflow policy of a pipeline stage.",
+              List.of("stage", "policy"));
+      CounterMetricFamily processed =
+          new CounterMetricFamily(
+              "logex_pipeline_processed_total",
+              "Lines or events processed by a pipeline stage.",
+              labels);
+      for (PipelineStage<?> stage : pipeline.getStages()) {
+        depth.addMetric(List.of(stage.getName()), stage.getDepth());
+        dropped.addMetric(
+            List.of(stage.getName(), stage.getPolicy().name().toLowerCase(Locale.ROOT)),
+            stage.getDropped());
+        processed.addMetric(List.of(stage.getName()), stage.getProcessed());
+      }
+      samples.add(depth);
+      samples.add(dropped);
+      samples.add(processed);
+    }
+    Map<String, Long> parseTimeouts = tailerManager.getParseTimeouts();
+    if (!parseTimeouts.isEmpty()) {
+      CounterMetricFamily timeouts =
+          new CounterMetricFamily(
+              "logex_parse_timeouts_total",
+              "Lines whose match exceeded the time budget and was abandoned.",
+              List.of("pattern"));
+      parseTimeouts.forEach((pattern, count) -> timeouts.addMetric(List.of(pattern), count));
+      samples.add(timeouts);
+    }
+    ParseResultCache cache = tailerManager.getParseCache();
+    if (cache != null) {
+      long hits = cache.getHits();
+      long lookups = hits + cache.getMisses();
+      samples.add(
+          new CounterMetricFamily(
+              "logex_parse_cache_hits_total",
+              "Lines handled from the updates cached for an identical line.",
+              hits));
+      samples.add(
+          new CounterMetricFamily(
+              "logex_parse_cache_misses_total",
+              "Lines looked up in the parse cache and not found.",
+              cache.getMisses()));
+      samples.add(
+          new GaugeMetricFamily(
+              "logex_parse_cache_hit_ratio",
+              "Ratio of the lines looked up in the parse cache that were found.",
+              lookups > 0 ? (double) hits / lookups : 0));
+      samples.add(
+          new GaugeMetricFamily(
+              "logex_parse_cache_bytes",
+              "Estimated heap taken by the lines in the parse cache.",
+              cache.getBytes()));
+    }
+    List<ExclusiveGroup> groups = tailerManager.getExclusiveGroups();
+    if (!groups.isEmpty()) {
+      CounterMetricFamily hits =
+          new CounterMetricFamily(
+              "logex_exclusive_group_hits_total",
+              "Lines matched by a pattern of an exclusive group.",
+              List.of("group", "pattern"));
+      CounterMetricFamily misses =
+          new CounterMetricFamily(
+              "logex_exclusive_group_misses_total",
+              "Lines matched by no pattern of an exclusive group.",
+              List.of("group"));
+      for (ExclusiveGroup group : groups) {
+        for (int i = 0; i < group.getPatterns().size(); i++) {
+          hits.addMetric(List.of(group.getName(), group.getPatterns().get(i)), group.getHits(i));
+        }
+        misses.addMetric(List.of(group.getName()), group.getMisses());
+      }
+      samples.add(hits);
+      samples.add(misses);
+    }
+    if (!labelMemos.isEmpty()) {
+      List<String> labels = List.of("metric", "label");
+      CounterMetricFamily hits =
+          new CounterMetricFamily(
+              "logex_label_memo_hits_total",
+              "Label values whose transformed value was found in the memo of the label.",
+              labels);
+      CounterMetricFamily misses =
+          new CounterMetricFamily(
+              "logex_label_memo_misses_total",
+              "Label values transformed because they were not found in the memo of the label.",
+              labels);
+      CounterMetricFamily evictions =
+          new CounterMetricFamily(
+              "logex_label_memo_evictions_total",
+              "Values evicted from the memo of a label to stay within its size.",
+              labels);
+      GaugeMetricFamily ratio =
+          new GaugeMetricFamily(
+              "logex_label_memo_hit_ratio",
+              "Ratio of the label values that were found in the memo of the label.",
+              labels);
+      for (LabelMemo memo : labelMemos) {
+        List<String> values = List.of(memo.getMetric(), memo.getLabel());
+        hits.addMetric(values, memo.getHits());
+        misses.addMetric(values, memo.getMisses());
+        evictions.addMetric(values, memo.getEvictions());
+        ratio.addMetric(values, memo.getHitRatio());
+      }
+      samples.add(hits);
+      samples.add(misses);
+      samples.add(evictions);
+      samples.add(ratio);
+    }
+    return samples;
+  }
+}
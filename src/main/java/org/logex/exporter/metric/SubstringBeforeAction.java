@@ -0,0 +1,34 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.metric;
+
+import org.logex.exporter.config.LabelConfig;
+
+/** Keeps the part of the value before the first delimiter, or the whole value without one. */
+public class SubstringBeforeAction extends NativeAction {
+  @Override
+  public NativeTransform compile(LabelConfig config) {
+    String delimiter = config.getDelimiter();
+    if (delimiter == null || delimiter.isEmpty()) {
+      throw misconfigured(config, "delimiter is required");
+    }
+    return (value, out) -> {
+      int end = indexOf(value, delimiter, 0);
+      out.append(value, 0, end >= 0 ? end : value.length());
+      return true;
+    };
+  }
+}
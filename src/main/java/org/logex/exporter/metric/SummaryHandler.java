@@ -21,15 +21,20 @@ import java.util.List;
 import java.util.Map;
 import org.logex.exporter.config.LabelConfig;
 import org.logex.exporter.config.MetricConfig;
-import org.logex.exporter.log.LogHandler;
+import org.logex.exporter.log.EventSchema;
+import org.logex.exporter.log.LogEvent;
 
-public class SummaryHandler implements LogHandler {
+public class SummaryHandler implements MetricHandler {
   private final Summary summary;
   private final MetricConfig config;
   private final LabelCache<Summary.Child> labelCache;
+  private volatile LabelPlan labelPlan;
+  // The slot of the value field in bound events, -1 if none.
+  private int valueSlot = -1;
 
   public SummaryHandler(MetricConfig config, CollectorRegistry registry) {
     this.config = config;
+    this.labelPlan = LabelPlan.compile(config);
     List<String> labelNames = config.getLabels().stream().map(LabelConfig::getName).toList();
     Summary.Builder builder =
         Summary.build()
@@ -49,15 +54,50 @@ public class SummaryHandler implements LogHandler {
             (labels) -> summary.remove(labels.toArray(new String[0])));
   }
 
+  @Override
+  public LabelPlan getLabelPlan() {
+    return labelPlan;
+  }
+
+  @Override
+  public void bind(EventSchema schema) {
+    labelPlan = labelPlan.bind(schema);
+    valueSlot = config.getValueField() != null ? schema.slot(config.getValueField()) : -1;
+  }
+
+  @Override
+  public void handle(LogEvent event) {
+    resolve(event).run();
+  }
+
+  @Override
+  public Runnable resolve(LogEvent event) {
+    LabelPlan plan = labelPlan;
+    if (!plan.isBound()) {
+      return resolve(event.asMap());
+    }
+    String field = event.get(valueSlot);
+    return resolve(plan.labels(event), field != null ? Double.parseDouble(field) : 1.0);
+  }
+
   @Override
   public void handle(Map<String, String> data) {
-    List<String> labelValues = LabelProcessor.processLabels(data, config);
+    resolve(data).run();
+  }
+
+  private Runnable resolve(Map<String, String> data) {
+    List<String> labelValues = labelPlan.labels(data);
     double value =
         (config.getValueField() != null && data.containsKey(config.getValueField()))
             ? Double.parseDouble(data.get(config.getValueField()))
             : 1.0;
-    labelCache
-        .getOrCreate(labelValues, () -> summary.labels(labelValues.toArray(new String[0])))
-        .observe(value);
+    return resolve(labelValues, value);
+  }
+
+  private Runnable resolve(List<String> labelValues, double value) {
+    return () ->
+        labelCache
+            .getOrCreate(labelValues, () -> summary.labels(labelValues.toArray(new String[0])))
+            .observe(value);
   }
 }
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.metric;
+
+import org.logex.exporter.config.LabelConfig;
+
+/** Keeps at most the first max_length characters of the value. */
+public class TruncateAction extends NativeAction {
+  @Override
+  public NativeTransform compile(LabelConfig config) {
+    Integer maxLength = config.getMaxLength();
+    if (maxLength == null || maxLength < 0) {
+      throw misconfigured(config, "max_length is required and must not be negative");
+    }
+    return (value, out) -> {
+      int end = Math.min(value.length(), maxLength);
+      // Do not split a surrogate pair.
+      if (end > 0 && end < value.length() && Character.isHighSurrogate(value.charAt(end - 1))) {
+        end--;
+      }
+      out.append(value, 0, end);
+      return true;
+    };
+  }
+}
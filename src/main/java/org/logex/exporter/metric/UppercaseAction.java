@@ -0,0 +1,43 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.metric;
+
+import java.util.Locale;
+import org.logex.exporter.config.LabelConfig;
+
+/**
+ * Uppercases the value. ASCII values are converted as they are scanned, without allocating, and
+ * others as whole strings, which handles supplementary characters and context-dependent mappings
+ * such as the German sharp s.
+ */
+public class UppercaseAction extends NativeAction {
+  @Override
+  public NativeTransform compile(LabelConfig config) {
+    return (value, out) -> {
+      int start = out.length();
+      for (int i = 0; i < value.length(); i++) {
+        char c = value.charAt(i);
+        if (c >= 0x80) {
+          out.setLength(start);
+          out.append(value.toString().toUpperCase(Locale.ROOT));
+          return true;
+        }
+        out.append(c >= 'a' && c <= 'z' ? (char) (c - ('a' - 'A')) : c);
+      }
+      return true;
+    };
+  }
+}
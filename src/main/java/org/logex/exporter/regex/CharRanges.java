@@ -0,0 +1,121 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.regex;
+
+import java.util.Arrays;
+
+/**
+ * Sets of code points, as sorted arrays of disjoint inclusive {@code [low, high]} pairs, with the
+ * character classes of {@code java.util.regex} in their default, non-Unicode flavour.
+ */
+final class CharRanges {
+
+  static final int MAX = Character.MAX_CODE_POINT;
+
+  static final int[] ALL = {0, MAX};
+  static final int[] DIGIT = {'0', '9'};
+  static final int[] WORD = {'0', '9', 'A', 'Z', '_', '_', 'a', 'z'};
+  static final int[] SPACE = {'\t', '\r', ' ', ' '};
+  static final int[] HORIZONTAL_SPACE = {
+    '\t', '\t', ' ', ' ', 0xA0, 0xA0, 0x1680, 0x1680, 0x180E, 0x180E, 0x2000, 0x200A, 0x202F,
+    0x202F, 0x205F, 0x205F, 0x3000, 0x3000
+  };
+  static final int[] VERTICAL_SPACE = {'\n', '\r', 0x85, 0x85, 0x2028, 0x2029};
+  static final int[] LINE_TERMINATOR = {'\n', '\n', '\r', '\r', 0x85, 0x85, 0x2028, 0x2029};
+  static final int[] DOT = negate(LINE_TERMINATOR);
+
+  private CharRanges() {}
+
+  static int[] of(int c) {
+    return new int[] {c, c};
+  }
+
+  static boolean contains(int[] ranges, int c) {
+    int low = 0;
+    int high = ranges.length / 2 - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      if (c < ranges[2 * mid]) {
+        high = mid - 1;
+      } else if (c > ranges[2 * mid + 1]) {
+        low = mid + 1;
+      } else {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Returns the complement of the set over all code points. */
+  static int[] negate(int[] ranges) {
+    int[] result = new int[ranges.length + 2];
+    int length = 0;
+    int next = 0;
+    for (int i = 0; i < ranges.length; i += 2) {
+      if (ranges[i] > next) {
+        result[length++] = next;
+        result[length++] = ranges[i] - 1;
+      }
+      next = ranges[i + 1] + 1;
+    }
+    if (next <= MAX) {
+      result[length++] = next;
+      result[length++] = MAX;
+    }
+    return Arrays.copyOf(result, length);
+  }
+
+  /** Returns the union of the sets. */
+  static int[] union(int[] a, int[] b) {
+    int[] pairs = new int[a.length + b.length];
+    System.arraycopy(a, 0, pairs, 0, a.length);
+    System.arraycopy(b, 0, pairs, a.length, b.length);
+    return normalize(pairs, pairs.length);
+  }
+
+  /** Sorts and merges the first {@code length} values of possibly overlapping pairs. */
+  static int[] normalize(int[] pairs, int length) {
+    long[] packed = new long[length / 2];
+    for (int i = 0; i < packed.length; i++) {
+      packed[i] = (long) pairs[2 * i] << 32 | pairs[2 * i + 1];
+    }
+    Arrays.sort(packed);
+    int[] result = new int[length];
+    int size = 0;
+    for (long pair : packed) {
+      int low = (int) (pair >>> 32);
+      int high = (int) pair;
+      if (size > 0 && low <= result[size - 1] + 1) {
+        result[size - 1] = Math.max(result[size - 1], high);
+      } else {
+        result[size++] = low;
+        result[size++] = high;
+      }
+    }
+    return Arrays.copyOf(result, size);
+  }
+
+  /** Returns the bits of the ASCII characters in the set, as two longs. */
+  static long[] asciiMask(int[] ranges) {
+    long[] mask = new long[2];
+    for (int i = 0; i < ranges.length && ranges[i] < 128; i += 2) {
+      for (int c = ranges[i]; c <= Math.min(ranges[i + 1], 127); c++) {
+        mask[c >>> 6] |= 1L << c;
+      }
+    }
+    return mask;
+  }
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.regex;
+
+import java.util.Arrays;
+import java.util.Map;
+import org.logex.exporter.regex.Node.Group;
+import org.logex.exporter.regex.Node.Kind;
+
+/**
+ * A {@code java.util.regex} expression run in time linear in the input, by simulating its automaton
+ * on all paths at once (a Pike VM) instead of backtracking. Paths keep the priorities of
+ * backtracking, so that groups capture what {@code java.util.regex} captures.
+ *
+ * <p>Expressions with back references, inline flags, lookarounds of variable length, or atomic
+ * groups and possessive quantifiers that would need to backtrack cannot be compiled (see {@link
+ * Parser}). Thread-safe.
+ */
+public final class LinearRegex {
+
+  private static final Kind[] KINDS = Kind.values();
+
+  private final Program program;
+  private final int groups;
+  private final Map<String, Integer> names;
+  private final ThreadLocal<Threads[]> threads;
+
+  private LinearRegex(Program program, int groups, Map<String, Integer> names) {
+    this.program = program;
+    this.groups = groups;
+    this.names = names;
+    this.threads =
+        ThreadLocal.withInitial(
+            () -> new Threads[] {new Threads(program.size), new Threads(program.size)});
+  }
+
+  /**
+   * Compiles the expression.
+   *
+   * @throws UnsupportedRegexException if it uses a construct that cannot run in linear time
+   */
+  public static LinearRegex compile(String regex) {
+    Parser.Result parsed = Parser.parse(regex, false);
+    Program program = Program.of(new Group(parsed.node(), 0), true);
+    return new LinearRegex(program, parsed.groups(), Map.copyOf(parsed.names()));
+  }
+
+  /** Returns the number of capturing groups, not counting the whole match. */
+  public int groupCount() {
+    return groups;
+  }
+
+  /** Returns the index of every named group. */
+  public Map<String, Integer> groupNames() {
+    return names;
+  }
+
+  /**
+   * Finds the first match in the input, and returns the start and end of every group in it: those
+   * of group {@code i} at {@code 2 * i} and {@code 2 * i + 1}, -1 for groups that did not
+   * participate, with group 0 being the whole match. Returns null if there is no match.
+   */
+  public int[] find(CharSequence input) {
+    Threads[] lists = threads.get();
+    Threads current = lists[0];
+    Threads next = lists[1];
+    current.clear();
+    next.clear();
+    int[] matched = null;
+    int length = input.length();
+    for (int pos = 0; ; ) {
+      if (matched == null) {
+        // A new attempt at this position, after all the earlier ones.
+        int[] slots = new int[2 * groups + 2];
+        Arrays.fill(slots, -1);
+        add(current, 0, slots, input, pos);
+      }
+      if (current.count == 0 && matched != null) {
+        break;
+      }
+      int c = pos < length ? Character.codePointAt(input, pos) : -1;
+      int end = c < 0 ? pos : pos + Character.charCount(c);
+      for (int i = 0; i < current.count; i++) {
+        int pc = current.pcs[i];
+        if (program.ops[pc] == Program.MATCH) {
+          // Paths after this one have a lower priority: drop them.
+          matched = current.slots[i];
+          break;
+        }
+        if (c >= 0 && program.accepts(pc, c)) {
+          add(next, pc + 1, current.slots[i], input, end);
+        }
+      }
+      if (c < 0) {
+        break;
+      }
+      Threads swap = current;
+      current = next;
+      next = swap;
+      next.clear();
+      pos = end;
+    }
+    current.clear();
+    next.clear();
+    return matched;
+  }
+
+  /**
+   * Adds the paths from {@code pc} to the instructions that consume or match, in priority order,
+   * unless a path of a higher priority already reached them.
+   */
+  private void add(Threads list, int pc, int[] slots, CharSequence input, int pos) {
+    list.push(pc, slots);
+    while (list.top > 0) {
+      list.top--;
+      pc = list.stackPcs[list.top];
+      slots = list.stackSlots[list.top];
+      list.stackSlots[list.top] = null;
+      if (!list.visit(pc)) {
+        continue;
+      }
+      switch (program.ops[pc]) {
+        case Program.SPLIT -> {
+          list.push(program.y[pc], slots);
+          list.push(program.x[pc], slots);
+        }
+        case Program.JUMP -> list.push(program.x[pc], slots);
+        case Program.SAVE -> {
+          int[] saved = slots.clone();
+          saved[program.x[pc]] = pos;
+          list.push(pc + 1, saved);
+        }
+        case Program.ASSERT -> {
+          if (holds(KINDS[program.x[pc]], input, pos)) {
+            list.push(pc + 1, slots);
+          }
+        }
+        case Program.LOOK -> {
+          if (looks(pc, input, pos)) {
+            list.push(pc + 1, slots);
+          }
+        }
+        default -> list.keep(pc, slots);
+      }
+    }
+  }
+
+  private boolean looks(int pc, CharSequence input, int pos) {
+    int[][] sequence = program.looks.get(program.y[pc]);
+    boolean found = true;
+    if ((program.x[pc] & Program.LOOK_AHEAD) != 0) {
+      for (int i = 0; found && i < sequence.length; i++) {
+        found = pos < input.length();
+        if (found) {
+          int c = Character.codePointAt(input, pos);
+          found = CharRanges.contains(sequence[i], c);
+          pos += Character.charCount(c);
+        }
+      }
+    } else {
+      for (int i = sequence.length - 1; found && i >= 0; i--) {
+        found = pos > 0;
+        if (found) {
+          int c = Character.codePointBefore(input, pos);
+          found = CharRanges.contains(sequence[i], c);
+          pos -= Character.charCount(c);
+        }
+      }
+    }
+    return found != ((program.x[pc] & Program.LOOK_NEGATED) != 0);
+  }
+
+  private static boolean holds(Kind kind, CharSequence input, int pos) {
+    int length = input.length();
+    return switch (kind) {
+      case BEGIN_INPUT -> pos == 0;
+      case END_INPUT -> pos == length;
+      case END_INPUT_OR_TERMINATOR -> {
+        // As java.util.regex: the end, or before a line terminator that ends the input.
+        if (pos == length) {
+          yield true;
+        }
+        if (pos == length - 2) {
+          yield input.charAt(pos) == '\r' && input.charAt(pos + 1) == '\n';
+        }
+        if (pos == length - 1) {
+          char c = input.charAt(pos);
+          yield c == '\n'
+              ? pos == 0 || input.charAt(pos - 1) != '\r'
+              : c == '\r' || c == 0x85 || (c | 1) == 0x2029;
+        }
+        yield false;
+      }
+      case WORD_BOUNDARY -> isWord(input, pos, true) != isWord(input, pos, false);
+      case NOT_WORD_BOUNDARY -> isWord(input, pos, true) == isWord(input, pos, false);
+    };
+  }
+
+  /**
+   * Returns whether the code point before (or after) the position is a word character, counting
+   * non-spacing marks that follow a letter or digit as {@code java.util.regex} does.
+   */
+  private static boolean isWord(CharSequence input, int pos, boolean before) {
+    if (before ? pos == 0 : pos == input.length()) {
+      return false;
+    }
+    int c = before ? Character.codePointBefore(input, pos) : Character.codePointAt(input, pos);
+    if (CharRanges.contains(CharRanges.WORD, c)) {
+      return true;
+    }
+    if (Character.getType(c) != Character.NON_SPACING_MARK) {
+      return false;
+    }
+    for (int i = before ? pos - 1 : pos; i >= 0; i--) {
+      int base = Character.codePointAt(input, i);
+      if (Character.isLetterOrDigit(base)) {
+        return true;
+      }
+      if (Character.getType(base) != Character.NON_SPACING_MARK) {
+        return false;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * The paths at one position, in priority order, with the instructions their closure visited and a
+   * stack to compute it.
+   */
+  private static final class Threads {
+    final int[] pcs;
+    final int[][] slots;
+    final int[] dense;
+    final int[] sparse;
+    final int[] stackPcs;
+    final int[][] stackSlots;
+    int count;
+    int visited;
+    int top;
+
+    Threads(int size) {
+      pcs = new int[size];
+      slots = new int[size][];
+      dense = new int[size];
+      sparse = new int[size];
+      stackPcs = new int[2 * size + 2];
+      stackSlots = new int[2 * size + 2][];
+    }
+
+    void clear() {
+      Arrays.fill(slots, 0, count, null);
+      count = 0;
+      visited = 0;
+    }
+
+    void push(int pc, int[] captured) {
+      stackPcs[top] = pc;
+      stackSlots[top++] = captured;
+    }
+
+    boolean visit(int pc) {
+      int i = sparse[pc];
+      if (i < visited && dense[i] == pc) {
+        return false;
+      }
+      sparse[pc] = visited;
+      dense[visited++] = pc;
+      return true;
+    }
+
+    void keep(int pc, int[] captured) {
+      pcs[count] = pc;
+      slots[count++] = captured;
+    }
+  }
+}
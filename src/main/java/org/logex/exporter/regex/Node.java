@@ -0,0 +1,55 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.regex;
+
+import java.util.List;
+
+/** The syntax tree of a parsed expression. */
+sealed interface Node {
+
+  /** Matches one code point of the set. */
+  record Chars(int[] ranges) implements Node {}
+
+  record Concat(List<Node> items) implements Node {}
+
+  /** Matches the first option that leads to a match. */
+  record Alternate(List<Node> options) implements Node {}
+
+  /** Matches the node {@code min} to {@code max} times, without bound if {@code max} is -1. */
+  record Repeat(Node node, int min, int max, boolean greedy) implements Node {}
+
+  /** Records the span matched by the node as capturing group {@code index}. */
+  record Group(Node node, int index) implements Node {}
+
+  /** A zero-width assertion on the position, such as a word boundary. */
+  record Assertion(Kind kind) implements Node {}
+
+  /**
+   * A zero-width assertion that the code points after (or before) the position are (or are not) in
+   * the sets of the sequence, as in {@code (?![0-9])} or {@code (?<!\\)}.
+   */
+  record Look(int[][] sequence, boolean ahead, boolean negated) implements Node {}
+
+  record Empty() implements Node {}
+
+  enum Kind {
+    BEGIN_INPUT,
+    END_INPUT,
+    END_INPUT_OR_TERMINATOR,
+    WORD_BOUNDARY,
+    NOT_WORD_BOUNDARY
+  }
+}
@@ -0,0 +1,510 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.regex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.logex.exporter.regex.Node.Alternate;
+import org.logex.exporter.regex.Node.Assertion;
+import org.logex.exporter.regex.Node.Chars;
+import org.logex.exporter.regex.Node.Concat;
+import org.logex.exporter.regex.Node.Empty;
+import org.logex.exporter.regex.Node.Group;
+import org.logex.exporter.regex.Node.Kind;
+import org.logex.exporter.regex.Node.Look;
+import org.logex.exporter.regex.Node.Repeat;
+
+/**
+ * Parses the subset of the {@code java.util.regex} syntax that can run in linear time, without
+ * flags. Expressions are expected to be valid for {@code java.util.regex}, so malformed input is
+ * only detected as far as needed.
+ *
+ * <p>Lookarounds must have a fixed sequence of characters, and atomic groups and possessive
+ * quantifiers are only accepted where they cannot change the match: around a part that matches in a
+ * single way, such as {@code (?>\d\d)}, or on the repetition of a single character, which is
+ * rewritten as in {@code [0-9]++} to {@code [0-9]+(?![0-9])}.
+ *
+ * <p>In approximate mode, constructs that only restrict what an expression matches are loosened
+ * instead of rejected: assertions and lookarounds match everywhere, back references match anything,
+ * atomic groups and possessive quantifiers backtrack. The result then matches at least every input
+ * that the original expression matches, which is enough to rule out the others.
+ */
+final class Parser {
+
+  private static final int MAX_REPEAT = 1000;
+
+  private final String regex;
+  private final boolean approximate;
+  private int pos;
+  private int groups;
+  private final Map<String, Integer> names = new LinkedHashMap<>();
+
+  private Parser(String regex, boolean approximate) {
+    this.regex = regex;
+    this.approximate = approximate;
+  }
+
+  /** The parsed expression along with its number of capturing groups and their names. */
+  record Result(Node node, int groups, Map<String, Integer> names) {}
+
+  static Result parse(String regex, boolean approximate) {
+    Parser parser = new Parser(regex, approximate);
+    Node node = parser.alternation();
+    if (parser.more()) {
+      throw parser.unsupported("Unbalanced parenthesis");
+    }
+    return new Result(node, parser.groups, parser.names);
+  }
+
+  private Node alternation() {
+    List<Node> options = new ArrayList<>();
+    options.add(concat());
+    while (more() && peek() == '|') {
+      pos++;
+      options.add(concat());
+    }
+    return options.size() == 1 ? options.get(0) : new Alternate(options);
+  }
+
+  private Node concat() {
+    List<Node> items = new ArrayList<>();
+    while (more() && peek() != '|' && peek() != ')') {
+      items.add(quantified(atom()));
+    }
+    if (items.isEmpty()) {
+      return new Empty();
+    }
+    return items.size() == 1 ? items.get(0) : new Concat(items);
+  }
+
+  private Node quantified(Node atom) {
+    while (more()) {
+      int start = pos;
+      int min;
+      int max;
+      switch (peek()) {
+        case '*' -> {
+          min = 0;
+          max = -1;
+        }
+        case '+' -> {
+          min = 1;
+          max = -1;
+        }
+        case '?' -> {
+          min = 0;
+          max = 1;
+        }
+        case '{' -> {
+          pos++;
+          min = number();
+          max = min;
+          if (more() && peek() == ',') {
+            pos++;
+            max = more() && peek() == '}' ? -1 : number();
+          }
+          if (!more() || peek() != '}') {
+            throw unsupported("Malformed repetition");
+          }
+          if (Math.max(min, max) > MAX_REPEAT) {
+            pos = start;
+            throw unsupported("Repetition over " + MAX_REPEAT);
+          }
+        }
+        default -> {
+          return atom;
+        }
+      }
+      pos++;
+      boolean greedy = true;
+      if (more() && peek() == '?') {
+        pos++;
+        greedy = false;
+      } else if (more() && peek() == '+') {
+        pos++;
+        atom = new Repeat(atom, min, max, true);
+        if (!approximate) {
+          atom = atomic(atom, start, "Possessive quantifier");
+        }
+        continue;
+      }
+      atom = new Repeat(atom, min, max, greedy);
+    }
+    return atom;
+  }
+
+  private int number() {
+    int start = pos;
+    while (more() && peek() >= '0' && peek() <= '9') {
+      pos++;
+    }
+    if (start == pos || pos - start > 9) {
+      throw unsupported("Malformed repetition");
+    }
+    return Integer.parseInt(regex, start, pos, 10);
+  }
+
+  private Node atom() {
+    int start = pos;
+    int c = next();
+    return switch (c) {
+      case '(' -> group();
+      case '[' -> new Chars(charClass());
+      case '.' -> new Chars(CharRanges.DOT);
+      case '^' -> assertion(Kind.BEGIN_INPUT);
+      case '$' -> assertion(Kind.END_INPUT_OR_TERMINATOR);
+      case '\\' -> escape();
+      case '*', '+', '?', '{' -> {
+        pos = start;
+        throw unsupported("Dangling meta character");
+      }
+      default -> new Chars(CharRanges.of(c));
+    };
+  }
+
+  private Node assertion(Kind kind) {
+    return approximate ? new Empty() : new Assertion(kind);
+  }
+
+  private Node group() {
+    if (!more() || peek() != '?') {
+      int index = ++groups;
+      return new Group(closed(alternation()), index);
+    }
+    pos++;
+    int c = next();
+    switch (c) {
+      case ':' -> {
+        return closed(alternation());
+      }
+      case '>' -> {
+        int start = pos;
+        Node body = closed(alternation());
+        return approximate ? body : atomic(body, start, "Atomic group");
+      }
+      case '=', '!' -> {
+        return look(true, c == '!');
+      }
+      case '<' -> {
+        if (more() && (peek() == '=' || peek() == '!')) {
+          return look(false, next() == '!');
+        }
+        int start = pos;
+        while (more() && peek() != '>') {
+          pos++;
+        }
+        String name = regex.substring(start, pos);
+        next();
+        int index = ++groups;
+        names.put(name, index);
+        return new Group(closed(alternation()), index);
+      }
+      default -> throw unsupported("Inline flags");
+    }
+  }
+
+  /** Returns the node matching what the atomic node matches, without needing to backtrack. */
+  private Node atomic(Node node, int start, String construct) {
+    if (isFixed(node)) {
+      return node;
+    }
+    if (node instanceof Repeat repeat
+        && repeat.node() instanceof Chars chars
+        && repeat.max() < 0
+        && repeat.greedy()) {
+      return new Concat(List.of(repeat, new Look(new int[][] {chars.ranges()}, true, true)));
+    }
+    pos = start;
+    throw unsupported(construct);
+  }
+
+  /** Returns whether the node matches a single sequence of characters, so in a single way. */
+  private static boolean isFixed(Node node) {
+    return switch (node) {
+      case Chars chars -> true;
+      case Concat concat -> concat.items().stream().allMatch(Parser::isFixed);
+      case Repeat repeat -> repeat.min() == repeat.max() && isFixed(repeat.node());
+      case Group group -> isFixed(group.node());
+      case Alternate alternate -> false;
+      case Assertion assertion -> true;
+      case Look look -> true;
+      case Empty empty -> true;
+    };
+  }
+
+  private Node look(boolean ahead, boolean negated) {
+    int start = pos;
+    Node body = closed(alternation());
+    if (approximate) {
+      return new Empty();
+    }
+    List<Node> items = body instanceof Concat concat ? concat.items() : List.of(body);
+    int[][] sequence = new int[items.size()][];
+    for (int i = 0; i < sequence.length; i++) {
+      if (!(items.get(i) instanceof Chars chars)) {
+        pos = start;
+        throw unsupported("Lookaround other than a sequence of characters");
+      }
+      sequence[i] = chars.ranges();
+    }
+    return new Look(sequence, ahead, negated);
+  }
+
+  private Node closed(Node node) {
+    if (!more() || next() != ')') {
+      throw unsupported("Unclosed group");
+    }
+    return node;
+  }
+
+  private Node escape() {
+    int start = pos;
+    int c = next();
+    switch (c) {
+      case 'b', 'B' -> {
+        if (more() && peek() == '{') {
+          throw unsupported("Boundary matcher");
+        }
+        return assertion(c == 'b' ? Kind.WORD_BOUNDARY : Kind.NOT_WORD_BOUNDARY);
+      }
+      case 'A' -> {
+        return assertion(Kind.BEGIN_INPUT);
+      }
+      case 'z' -> {
+        return assertion(Kind.END_INPUT);
+      }
+      case 'Z' -> {
+        return assertion(Kind.END_INPUT_OR_TERMINATOR);
+      }
+      case 'k' -> {
+        while (more() && peek() != '>') {
+          pos++;
+        }
+        next();
+        return backReference(start);
+      }
+      case 'Q' -> {
+        int end = regex.indexOf("\\E", pos);
+        String quoted = regex.substring(pos, end < 0 ? regex.length() : end);
+        pos = end < 0 ? regex.length() : end + 2;
+        return new Concat(
+            quoted.codePoints().<Node>mapToObj(q -> new Chars(CharRanges.of(q))).toList());
+      }
+      default -> {
+        if (c >= '1' && c <= '9') {
+          while (more() && peek() >= '0' && peek() <= '9') {
+            pos++;
+          }
+          return backReference(start);
+        }
+        int[] shorthand = shorthand(c);
+        if (shorthand != null) {
+          return new Chars(shorthand);
+        }
+        pos = start;
+        return new Chars(CharRanges.of(escapedChar()));
+      }
+    }
+  }
+
+  private Node backReference(int start) {
+    if (!approximate) {
+      pos = start;
+      throw unsupported("Back reference");
+    }
+    return new Repeat(new Chars(CharRanges.ALL), 0, -1, true);
+  }
+
+  private static int[] shorthand(int c) {
+    return switch (c) {
+      case 'd' -> CharRanges.DIGIT;
+      case 'D' -> CharRanges.negate(CharRanges.DIGIT);
+      case 'w' -> CharRanges.WORD;
+      case 'W' -> CharRanges.negate(CharRanges.WORD);
+      case 's' -> CharRanges.SPACE;
+      case 'S' -> CharRanges.negate(CharRanges.SPACE);
+      case 'h' -> CharRanges.HORIZONTAL_SPACE;
+      case 'H' -> CharRanges.negate(CharRanges.HORIZONTAL_SPACE);
+      case 'v' -> CharRanges.VERTICAL_SPACE;
+      case 'V' -> CharRanges.negate(CharRanges.VERTICAL_SPACE);
+      default -> null;
+    };
+  }
+
+  /** Parses the escape after a backslash that stands for a single character. */
+  private int escapedChar() {
+    int start = pos;
+    int c = next();
+    switch (c) {
+      case 't':
+        return '\t';
+      case 'n':
+        return '\n';
+      case 'r':
+        return '\r';
+      case 'f':
+        return '\f';
+      case 'a':
+        return 0x07;
+      case 'e':
+        return 0x1B;
+      case 'c':
+        return next() ^ 64;
+      case '0':
+        {
+          int value = 0;
+          int digits = 0;
+          int maxDigits = more() && peek() >= '0' && peek() <= '3' ? 3 : 2;
+          while (digits < maxDigits && more() && peek() >= '0' && peek() <= '7') {
+            value = value * 8 + next() - '0';
+            digits++;
+          }
+          if (digits == 0) {
+            throw unsupported("Illegal octal escape");
+          }
+          return value;
+        }
+      case 'x':
+        if (more() && peek() == '{') {
+          int end = regex.indexOf('}', pos);
+          int value = hex(pos + 1, end);
+          pos = end + 1;
+          return value;
+        }
+        pos += 2;
+        return hex(pos - 2, pos);
+      case 'u':
+        {
+          pos += 4;
+          int value = hex(pos - 4, pos);
+          if (Character.isHighSurrogate((char) value)
+              && regex.startsWith("\\u", pos)
+              && pos + 6 <= regex.length()) {
+            int low = hex(pos + 2, pos + 6);
+            if (Character.isLowSurrogate((char) low)) {
+              pos += 6;
+              return Character.toCodePoint((char) value, (char) low);
+            }
+          }
+          return value;
+        }
+      default:
+        if (Character.isLetterOrDigit(c)) {
+          pos = start;
+          throw unsupported("Escape \\" + Character.toString(c));
+        }
+        return c;
+    }
+  }
+
+  private int hex(int start, int end) {
+    try {
+      return Integer.parseInt(regex, start, end, 16);
+    } catch (NumberFormatException | IndexOutOfBoundsException e) {
+      throw unsupported("Illegal hexadecimal escape");
+    }
+  }
+
+  private int[] charClass() {
+    int start = pos;
+    boolean negated = more() && peek() == '^';
+    if (negated) {
+      pos++;
+    }
+    if (more() && peek() == ']') {
+      throw unsupported("Empty character class");
+    }
+    int[] pairs = new int[16];
+    int length = 0;
+    while (true) {
+      if (!more()) {
+        pos = start;
+        throw unsupported("Unclosed character class");
+      }
+      int c = next();
+      int[] set = null;
+      int low;
+      if (c == ']') {
+        break;
+      } else if (c == '[') {
+        if (negated) {
+          throw unsupported("Nested class in a negated class");
+        }
+        set = charClass();
+        low = -1;
+      } else if (c == '&' && more() && peek() == '&') {
+        throw unsupported("Class intersection");
+      } else if (c == '\\') {
+        set = shorthand(peek());
+        if (set != null) {
+          pos++;
+          low = -1;
+        } else {
+          low = escapedChar();
+        }
+      } else {
+        low = c;
+      }
+      if (set == null) {
+        int high = low;
+        if (more() && peek() == '-' && pos + 1 < regex.length() && regex.charAt(pos + 1) != ']') {
+          pos++;
+          high = next();
+          if (high == '\\') {
+            high = escapedChar();
+          } else if (high == '[') {
+            throw unsupported("Class range ending in a class");
+          }
+          if (high < low) {
+            throw unsupported("Illegal character range");
+          }
+        }
+        set = new int[] {low, high};
+      }
+      if (length + set.length > pairs.length) {
+        pairs = Arrays.copyOf(pairs, Math.max(pairs.length * 2, length + set.length));
+      }
+      System.arraycopy(set, 0, pairs, length, set.length);
+      length += set.length;
+    }
+    int[] ranges = CharRanges.normalize(pairs, length);
+    return negated ? CharRanges.negate(ranges) : ranges;
+  }
+
+  private boolean more() {
+    return pos < regex.length();
+  }
+
+  private int peek() {
+    return regex.codePointAt(pos);
+  }
+
+  private int next() {
+    if (!more()) {
+      throw unsupported("Unexpected end");
+    }
+    int c = regex.codePointAt(pos);
+    pos += Character.charCount(c);
+    return c;
+  }
+
+  private UnsupportedRegexException unsupported(String construct) {
+    return new UnsupportedRegexException(construct, regex, pos);
+  }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.regex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.logex.exporter.regex.Node.Alternate;
+import org.logex.exporter.regex.Node.Assertion;
+import org.logex.exporter.regex.Node.Chars;
+import org.logex.exporter.regex.Node.Concat;
+import org.logex.exporter.regex.Node.Empty;
+import org.logex.exporter.regex.Node.Group;
+import org.logex.exporter.regex.Node.Look;
+import org.logex.exporter.regex.Node.Repeat;
+
+/**
+ * A Thompson automaton compiled from syntax trees, as a flat list of instructions. {@link #SPLIT}
+ * prefers its first branch, which is how greedy and lazy quantifiers keep their priorities.
+ */
+final class Program {
+
+  /** Consumes one code point of {@code sets[pc]}. */
+  static final byte CHAR = 0;
+
+  /** Continues at {@code x[pc]}, then at {@code y[pc]}. */
+  static final byte SPLIT = 1;
+
+  /** Continues at {@code x[pc]}. */
+  static final byte JUMP = 2;
+
+  /** Records the position in capture slot {@code x[pc]}. */
+  static final byte SAVE = 3;
+
+  /** Reports a match of expression {@code x[pc]}. */
+  static final byte MATCH = 4;
+
+  /** Checks the {@link Node.Kind} of ordinal {@code x[pc]}. */
+  static final byte ASSERT = 5;
+
+  /**
+   * Checks the code points after, if {@link #LOOK_AHEAD} is set in {@code x[pc]}, or before the
+   * position against the sequence of sets {@code looks.get(y[pc])}, negated if {@link
+   * #LOOK_NEGATED} is set.
+   */
+  static final byte LOOK = 6;
+
+  static final int LOOK_AHEAD = 1;
+  static final int LOOK_NEGATED = 2;
+
+  private static final int MAX_INSTRUCTIONS = 200_000;
+
+  byte[] ops = new byte[64];
+  int[] x = new int[64];
+  int[] y = new int[64];
+  int[][] sets = new int[64][];
+  long[] asciiLow = new long[64];
+  long[] asciiHigh = new long[64];
+  int size;
+  final List<int[][]> looks = new ArrayList<>();
+
+  private final boolean captures;
+  private int limit = MAX_INSTRUCTIONS;
+
+  private Program(boolean captures) {
+    this.captures = captures;
+  }
+
+  /** Compiles one expression, which reports a match as expression 0. */
+  static Program of(Node node, boolean captures) {
+    Program program = new Program(captures);
+    program.compile(node);
+    program.emit(MATCH, 0, 0, null);
+    return program;
+  }
+
+  /**
+   * Compiles a set of expressions that are searched for anywhere in the input, each reporting a
+   * match with its own index. Expressions that do not fit are left out and have their tree replaced
+   * by null.
+   */
+  static Program ofSet(List<Node> nodes) {
+    Program program = new Program(false);
+    // Skip any number of code points before trying the expressions.
+    program.emit(SPLIT, 3, 1, null);
+    program.emit(CHAR, 0, 0, CharRanges.ALL);
+    program.emit(JUMP, 0, 0, null);
+    for (int i = 0; i < nodes.size(); i++) {
+      Node node = nodes.get(i);
+      if (node == null) {
+        continue;
+      }
+      int split = program.size;
+      program.limit = split + MAX_INSTRUCTIONS;
+      try {
+        program.emit(SPLIT, split + 1, 0, null);
+        program.compile(node);
+        program.emit(MATCH, i, 0, null);
+        program.y[split] = program.size;
+      } catch (UnsupportedRegexException e) {
+        program.size = split;
+        nodes.set(i, null);
+      }
+    }
+    // The last alternative: a set no code point is in.
+    program.emit(CHAR, 0, 0, new int[0]);
+    return program;
+  }
+
+  boolean accepts(int pc, int c) {
+    if (c < 64) {
+      return (asciiLow[pc] & 1L << c) != 0;
+    }
+    if (c < 128) {
+      return (asciiHigh[pc] & 1L << (c - 64)) != 0;
+    }
+    return CharRanges.contains(sets[pc], c);
+  }
+
+  private void compile(Node node) {
+    switch (node) {
+      case Chars chars -> emit(CHAR, 0, 0, chars.ranges());
+      case Concat concat -> concat.items().forEach(this::compile);
+      case Alternate alternate -> {
+        int[] jumps = new int[alternate.options().size() - 1];
+        for (int i = 0; i < jumps.length; i++) {
+          int split = emit(SPLIT, size + 1, 0, null);
+          compile(alternate.options().get(i));
+          jumps[i] = emit(JUMP, 0, 0, null);
+          y[split] = size;
+        }
+        compile(alternate.options().get(jumps.length));
+        for (int jump : jumps) {
+          x[jump] = size;
+        }
+      }
+      case Repeat repeat -> {
+        for (int i = 0; i < repeat.min(); i++) {
+          compile(repeat.node());
+        }
+        if (repeat.max() < 0) {
+          int split = emit(SPLIT, 0, 0, null);
+          compile(repeat.node());
+          emit(JUMP, split, 0, null);
+          branch(split, split + 1, size, repeat.greedy());
+        } else {
+          int[] splits = new int[repeat.max() - repeat.min()];
+          for (int i = 0; i < splits.length; i++) {
+            splits[i] = emit(SPLIT, 0, 0, null);
+            compile(repeat.node());
+          }
+          for (int split : splits) {
+            branch(split, split + 1, size, repeat.greedy());
+          }
+        }
+      }
+      case Group group -> {
+        if (captures) {
+          emit(SAVE, 2 * group.index(), 0, null);
+        }
+        compile(group.node());
+        if (captures) {
+          emit(SAVE, 2 * group.index() + 1, 0, null);
+        }
+      }
+      case Assertion assertion -> emit(ASSERT, assertion.kind().ordinal(), 0, null);
+      case Look look -> {
+        int flags = (look.ahead() ? LOOK_AHEAD : 0) | (look.negated() ? LOOK_NEGATED : 0);
+        emit(LOOK, flags, looks.size(), null);
+        looks.add(look.sequence());
+      }
+      case Empty empty -> {}
+    }
+  }
+
+  private void branch(int split, int body, int out, boolean greedy) {
+    x[split] = greedy ? body : out;
+    y[split] = greedy ? out : body;
+  }
+
+  private int emit(byte op, int first, int second, int[] set) {
+    if (size >= limit) {
+      throw new UnsupportedRegexException("Expression over " + MAX_INSTRUCTIONS + " instructions");
+    }
+    if (size == ops.length) {
+      int capacity = size * 2;
+      ops = Arrays.copyOf(ops, capacity);
+      x = Arrays.copyOf(x, capacity);
+      y = Arrays.copyOf(y, capacity);
+      sets = Arrays.copyOf(sets, capacity);
+      asciiLow = Arrays.copyOf(asciiLow, capacity);
+      asciiHigh = Arrays.copyOf(asciiHigh, capacity);
+    }
+    ops[size] = op;
+    x[size] = first;
+    y[size] = second;
+    sets[size] = set;
+    if (set != null) {
+      long[] mask = CharRanges.asciiMask(set);
+      asciiLow[size] = mask[0];
+      asciiHigh[size] = mask[1];
+    } else {
+      asciiLow[size] = 0;
+      asciiHigh[size] = 0;
+    }
+    return size++;
+  }
+}
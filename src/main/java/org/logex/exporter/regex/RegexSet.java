@@ -0,0 +1,272 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.regex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Finds which of a set of {@code java.util.regex} expressions may match an input, in a single scan
+ * whatever their number. The expressions are combined into one automaton, run as a DFA whose states
+ * are built lazily on first use and cached, as RE2 does. Once the cache is full, it is cleared and
+ * rebuilt, so that memory stays bounded whatever the input.
+ *
+ * <p>The automaton is built from approximations of the expressions (see {@link Parser}), so that
+ * every expression matching the input is reported, and a few that do not may be as well. An
+ * expression that cannot be approximated, such as one with inline flags, is always reported.
+ * Thread-safe.
+ */
+public final class RegexSet {
+
+  static final int MAX_STATES = 10_000;
+  private static final int ASCII = 128;
+
+  private final int size;
+  private final int words;
+  private final long[] unsupported;
+  private final long[] all;
+  private final Program program;
+  private final ThreadLocal<Workspace> workspace;
+  private volatile Cache cache;
+
+  public RegexSet(List<String> regexes) {
+    this.size = regexes.size();
+    this.words = (size + 63) / 64;
+    this.unsupported = new long[words];
+    this.all = new long[words];
+    List<Node> nodes = new ArrayList<>();
+    for (String regex : regexes) {
+      try {
+        nodes.add(Parser.parse(regex, true).node());
+      } catch (UnsupportedRegexException e) {
+        nodes.add(null);
+      }
+    }
+    this.program = Program.ofSet(nodes);
+    for (int i = 0; i < size; i++) {
+      all[i >>> 6] |= 1L << i;
+      if (nodes.get(i) == null) {
+        unsupported[i >>> 6] |= 1L << i;
+      }
+    }
+    this.workspace = ThreadLocal.withInitial(() -> new Workspace(program.size));
+    this.cache = new Cache();
+  }
+
+  /** Returns the number of longs in a bit set of the expressions. */
+  public int words() {
+    return words;
+  }
+
+  /** Returns whether the expression at {@code index} is run by the automaton. */
+  public boolean isSupported(int index) {
+    return (unsupported[index >>> 6] & 1L << index) == 0;
+  }
+
+  /**
+   * Sets in {@code matched} the bit of every expression that may match somewhere in the input,
+   * including those that are not supported.
+   */
+  public void match(CharSequence input, long[] matched) {
+    for (int w = 0; w < words; w++) {
+      matched[w] |= unsupported[w];
+    }
+    Cache current = cache;
+    State state = current.start;
+    if (state.matches != null && merge(state.matches, matched)) {
+      return;
+    }
+    for (int i = 0, length = input.length(); i < length; ) {
+      int c = Character.codePointAt(input, i);
+      i += Character.charCount(c);
+      State next = c < ASCII ? state.ascii[c] : current.others.get(key(state, c));
+      if (next == null) {
+        if (current.states.size() >= MAX_STATES) {
+          current = reset();
+          state =
+              current.intern(new State(current.ids.getAndIncrement(), state.pcs, state.matches));
+        }
+        next = step(current, state, c);
+      }
+      state = next;
+      if (state.matches != null && merge(state.matches, matched)) {
+        return;
+      }
+    }
+  }
+
+  /** Returns the number of cached states, for tests. */
+  int states() {
+    return cache.states.size();
+  }
+
+  private boolean merge(long[] matches, long[] matched) {
+    boolean complete = true;
+    for (int w = 0; w < words; w++) {
+      matched[w] |= matches[w];
+      complete &= matched[w] == all[w];
+    }
+    return complete;
+  }
+
+  private synchronized Cache reset() {
+    if (cache.states.size() >= MAX_STATES) {
+      cache = new Cache();
+    }
+    return cache;
+  }
+
+  private State step(Cache current, State state, int c) {
+    Workspace work = workspace.get();
+    work.clear();
+    for (int pc : state.pcs) {
+      if (program.ops[pc] == Program.CHAR && program.accepts(pc, c)) {
+        work.push(pc + 1);
+      }
+    }
+    State next = current.intern(closure(current, work));
+    if (c < ASCII) {
+      state.ascii[c] = next;
+    } else {
+      current.others.put(key(state, c), next);
+    }
+    return next;
+  }
+
+  /** Follows the empty transitions from the pushed instructions to those that consume or match. */
+  private State closure(Cache current, Workspace work) {
+    int kept = 0;
+    long[] matches = null;
+    while (work.top > 0) {
+      int pc = work.stack[--work.top];
+      if (!work.visit(pc)) {
+        continue;
+      }
+      switch (program.ops[pc]) {
+        case Program.SPLIT -> {
+          work.push(program.y[pc]);
+          work.push(program.x[pc]);
+        }
+        case Program.JUMP -> work.push(program.x[pc]);
+        case Program.MATCH -> {
+          if (matches == null) {
+            matches = new long[words];
+          }
+          matches[program.x[pc] >>> 6] |= 1L << program.x[pc];
+          work.kept[kept++] = pc;
+        }
+        case Program.CHAR -> work.kept[kept++] = pc;
+        default -> work.push(pc + 1);
+      }
+    }
+    int[] pcs = Arrays.copyOf(work.kept, kept);
+    Arrays.sort(pcs);
+    return new State(current.ids.getAndIncrement(), pcs, matches);
+  }
+
+  private static long key(State state, int c) {
+    return (long) state.id << 21 | c;
+  }
+
+  /** The cached DFA states, dropped as a whole once full. */
+  private final class Cache {
+    final Map<State, State> states = new ConcurrentHashMap<>();
+    final Map<Long, State> others = new ConcurrentHashMap<>();
+    final AtomicInteger ids = new AtomicInteger();
+    final State start;
+
+    Cache() {
+      Workspace work = workspace.get();
+      work.clear();
+      work.push(0);
+      start = intern(closure(this, work));
+    }
+
+    State intern(State state) {
+      State previous = states.putIfAbsent(state, state);
+      return previous != null ? previous : state;
+    }
+  }
+
+  /**
+   * A DFA state: the automaton instructions that consume or match, reached after the input so far.
+   * Transitions are filled in as they are taken; racing threads compute equal states.
+   */
+  private static final class State {
+    final int id;
+    final int[] pcs;
+    final long[] matches;
+    final State[] ascii = new State[ASCII];
+    private final int hash;
+
+    State(int id, int[] pcs, long[] matches) {
+      this.id = id;
+      this.pcs = pcs;
+      this.matches = matches;
+      this.hash = Arrays.hashCode(pcs);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof State other && Arrays.equals(pcs, other.pcs);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  /** Per-thread scratch space: a stack and a sparse set of the visited instructions. */
+  private static final class Workspace {
+    final int[] stack;
+    final int[] kept;
+    final int[] dense;
+    final int[] sparse;
+    int top;
+    int visited;
+
+    Workspace(int size) {
+      stack = new int[3 * size + 1];
+      kept = new int[size];
+      dense = new int[size];
+      sparse = new int[size];
+    }
+
+    void clear() {
+      top = 0;
+      visited = 0;
+    }
+
+    void push(int pc) {
+      stack[top++] = pc;
+    }
+
+    boolean visit(int pc) {
+      int i = sparse[pc];
+      if (i < visited && dense[i] == pc) {
+        return false;
+      }
+      sparse[pc] = visited;
+      dense[visited++] = pc;
+      return true;
+    }
+  }
+}
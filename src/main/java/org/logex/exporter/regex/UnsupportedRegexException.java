@@ -0,0 +1,34 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.regex;
+
+/** Thrown when an expression uses a construct that the engines of this package cannot run. */
+public class UnsupportedRegexException extends IllegalArgumentException {
+
+  public UnsupportedRegexException(String construct, String regex, int index) {
+    super(
+        construct
+            + " at index "
+            + index
+            + " near \""
+            + regex.substring(index, Math.min(regex.length(), index + 32))
+            + "\"");
+  }
+
+  public UnsupportedRegexException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32C;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CheckpointStoreTest {
+
+  @TempDir Path tempDir;
+
+  @Test
+  void flush_shouldPersistCheckpointsForNextStore() {
+    Path file = tempDir.resolve("state/checkpoints.json");
+    CheckpointStore store = new CheckpointStore(file);
+    store.update("/var/log/app.log", new FileIdentity(1, 2, 3, 4), 42);
+
+    store.flush();
+    CheckpointStore reloaded = new CheckpointStore(file);
+
+    CheckpointStore.Checkpoint checkpoint = reloaded.get("/var/log/app.log");
+    assertNotNull(checkpoint);
+    assertEquals(42, checkpoint.getOffset());
+    assertEquals(new FileIdentity(1, 2, 3, 4), checkpoint.getIdentity());
+  }
+
+  @Test
+  void flush_shouldSkipWriteWhenNothingChanged() throws IOException {
+    Path file = tempDir.resolve("checkpoints.json");
+    CheckpointStore store = new CheckpointStore(file);
+
+    store.flush();
+
+    assertFalse(Files.exists(file));
+  }
+
+  @Test
+  void prune_shouldDropCheckpointsOfMissingFiles() throws IOException {
+    Path existing = Files.createFile(tempDir.resolve("existing.log"));
+    CheckpointStore store = new CheckpointStore(null);
+    store.update(existing.toString(), new FileIdentity(1, 2, 3, 4), 1);
+    store.update(tempDir.resolve("missing.log").toString(), new FileIdentity(1, 3, 3, 4), 1);
+
+    store.prune(-1);
+
+    assertNotNull(store.get(existing.toString()));
+    assertNull(store.get(tempDir.resolve("missing.log").toString()));
+  }
+
+  @Test
+  void update_shouldRetireCheckpointOfReplacedFile() {
+    byte[] head = "first line\n".getBytes(StandardCharsets.UTF_8);
+    CRC32C crc = new CRC32C();
+    crc.update(head);
+    CheckpointStore store = new CheckpointStore(null);
+    store.update("/var/log/app.log", new FileIdentity(1, 2, crc.getValue(), head.length), 7);
+
+    store.update("/var/log/app.log", new FileIdentity(1, 3, 5, 6), 0);
+
+    assertEquals(3, store.get("/var/log/app.log").getInode());
+    CheckpointStore.Checkpoint retired = store.findByContent(head, head.length);
+    assertNotNull(retired);
+    assertTrue(retired.isRetired());
+    assertEquals(7, retired.getOffset());
+
+    store.prune(-1);
+    assertNull(store.findByContent(head, head.length));
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class DissectLineParserTest {
+
+  private final EventSchema schema = new EventSchema();
+
+  private LogEvent parse(DissectLineParser parser, String line) {
+    LogEvent event = new LogEvent().reset(schema);
+    return parser.parse(line, event) ? event : null;
+  }
+
+  @Test
+  void parse_shouldSplitOnLiteralDelimiters() {
+    DissectLineParser parser =
+        new DissectLineParser("%{ts} [%{thread}] %{level} %{class} - %{msg}", schema);
+    parser.setFields(Set.of("thread", "level", "msg"));
+
+    LogEvent event = parse(parser, "2025-01-01T00:00:00 [main-1] WARN org.Foo - disk [sda] - full");
+
+    assertNotNull(event);
+    assertEquals("main-1", event.get(schema.indexOf("thread")));
+    assertEquals("WARN", event.get(schema.indexOf("level")));
+    assertEquals("disk [sda] - full", event.get(schema.indexOf("msg")));
+    assertEquals(-1, schema.indexOf("ts"));
+  }
+
+  @Test
+  void parse_shouldSkipKeysAndPadding() {
+    DissectLineParser parser = new DissectLineParser("<%{?pri}>%{level->} %{status}|%{}|%{bytes}");
+
+    assertEquals(
+        Map.of("level", "INFO", "status", "200", "bytes", "512"),
+        parse(parser, "<13>INFO    200|GET|512").asMap());
+  }
+
+  @Test
+  void parse_shouldNotMatchLinesMissingDelimiters() {
+    DissectLineParser parser = new DissectLineParser("[%{level}] %{msg}", schema);
+
+    assertNull(parse(parser, "INFO started"));
+    assertNull(parse(parser, "[INFO started"));
+    assertNotNull(parse(parser, "[INFO] "));
+  }
+
+  @Test
+  void constructor_shouldRejectAdjacentKeys() {
+    assertThrows(IllegalArgumentException.class, () -> new DissectLineParser("%{a}%{b}"));
+    assertThrows(IllegalArgumentException.class, () -> new DissectLineParser("no keys"));
+  }
+}
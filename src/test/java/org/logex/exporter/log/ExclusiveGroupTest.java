@@ -0,0 +1,78 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class ExclusiveGroupTest {
+
+  private final List<String> handled = new ArrayList<>();
+
+  private LineDispatcher dispatcher(Map<String, String> exclusiveGroups) {
+    return new LineDispatcher(
+        Map.of(
+            "first", new LogParser("^%{WORD:word}", null),
+            "second", new LogParser("%{INT:number}$", null)),
+        Map.of(
+            "first", List.of(data -> handled.add("first " + data.get("word"))),
+            "second", List.of(data -> handled.add("second " + data.get("number")))),
+        exclusiveGroups);
+  }
+
+  @Test
+  void dispatch_shouldStopAtFirstMatchOfExclusiveGroup() {
+    LineDispatcher dispatcher = dispatcher(Map.of("first", "app", "second", "app"));
+
+    dispatcher.dispatch("hello 42", "/var/log/app.log");
+    dispatcher.dispatch("-- 7", "/var/log/app.log");
+    dispatcher.dispatch("--", "/var/log/app.log");
+
+    // The first line matches both patterns, but is only handled by the one tried first.
+    assertEquals(2, handled.size());
+    assertEquals("second 7", handled.get(1));
+    ExclusiveGroup group = dispatcher.getExclusiveGroups().get(0);
+    assertEquals("app", group.getName());
+    assertEquals(2, group.getHits(0) + group.getHits(1));
+    assertEquals(1, group.getMisses());
+  }
+
+  @Test
+  void dispatch_shouldRunEveryPatternOutsideExclusiveGroups() {
+    LineDispatcher dispatcher = dispatcher(Map.of());
+
+    dispatcher.dispatch("hello 42", "/var/log/app.log");
+
+    assertEquals(List.of("first hello", "second 42"), handled.stream().sorted().toList());
+    assertTrue(dispatcher.getExclusiveGroups().isEmpty());
+  }
+
+  @Test
+  void reorder_shouldTryMostFrequentlyMatchingPatternsFirst() {
+    ExclusiveGroup group = new ExclusiveGroup("app", List.of("a", "b", "c"));
+    group.hit(2);
+    group.hit(2);
+    group.hit(1);
+
+    group.reorder();
+
+    assertArrayEquals(new int[] {2, 1, 0}, group.order());
+  }
+}
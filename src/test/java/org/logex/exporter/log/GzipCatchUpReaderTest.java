@@ -0,0 +1,182 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class GzipCatchUpReaderTest {
+
+  @TempDir Path tempDir;
+
+  private List<String> words;
+  private List<String> paths;
+  private LineDispatcher dispatcher;
+  private CheckpointStore checkpoints;
+
+  @BeforeEach
+  void setUp() {
+    words = new ArrayList<>();
+    paths = new ArrayList<>();
+    checkpoints = new CheckpointStore(null);
+    dispatcher =
+        new LineDispatcher(
+            Map.of("%{WORD:word}", new LogParser("^%{WORD:word}$", null)),
+            Map.of(
+                "%{WORD:word}",
+                List.of(
+                    data -> {
+                      words.add(data.get("word"));
+                      paths.add(data.get("path"));
+                    })));
+  }
+
+  private Path compress(Path file) throws IOException {
+    Path compressed = file.resolveSibling(file.getFileName() + ".1.gz");
+    try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed))) {
+      Files.copy(file, out);
+    }
+    Files.delete(file);
+    return compressed;
+  }
+
+  @Test
+  void catchUp_shouldHandleOnlyLinesNotTailedBeforeCompression() throws IOException {
+    Path file = tempDir.resolve("app.log");
+    Files.writeString(file, "one\ntwo\n");
+    LogTailer tailer = new LogTailer(file, dispatcher, false, checkpoints);
+    tailer.read();
+    tailer.stop();
+    Files.writeString(file, "three\nfour", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    Path compressed = compress(file);
+    GzipCatchUpReader reader = new GzipCatchUpReader(dispatcher, checkpoints, identity -> false, 1);
+
+    reader.catchUp(compressed);
+    reader.catchUp(compressed);
+
+    assertEquals(List.of("one", "two", "three", "four"), words);
+    assertEquals(file.toString(), paths.get(3));
+  }
+
+  @Test
+  void catchUp_shouldHandleNothingOfPartiallyWrittenArchive() throws IOException {
+    Path file = tempDir.resolve("app.log");
+    Files.writeString(file, "one\n");
+    LogTailer tailer = new LogTailer(file, dispatcher, false, checkpoints);
+    tailer.read();
+    tailer.stop();
+    Files.writeString(
+        file, "two\nthree\n".repeat(1000), StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    Path compressed = compress(file);
+    byte[] complete = Files.readAllBytes(compressed);
+    Files.write(compressed, Arrays.copyOf(complete, complete.length - 10));
+    GzipCatchUpReader reader = new GzipCatchUpReader(dispatcher, checkpoints, identity -> false, 1);
+
+    reader.catchUp(compressed);
+    assertEquals(List.of("one"), words);
+
+    Files.write(compressed, complete);
+    reader.catchUp(compressed);
+    assertEquals(2001, words.size());
+  }
+
+  @Test
+  void submit_shouldDeferFilesWhoseSizeChanged() throws IOException, InterruptedException {
+    Path file = tempDir.resolve("app.log");
+    Files.writeString(file, "one\n");
+    LogTailer tailer = new LogTailer(file, dispatcher, false, checkpoints);
+    tailer.read();
+    tailer.stop();
+    Files.writeString(file, "two\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    Path compressed = compress(file);
+    GzipCatchUpReader reader = new GzipCatchUpReader(dispatcher, checkpoints, identity -> false, 1);
+
+    reader.submit(compressed);
+    Thread.sleep(100);
+    assertEquals(List.of("one"), words);
+
+    reader.submit(compressed);
+    for (int i = 0; i < 100 && words.size() < 2; i++) {
+      Thread.sleep(50);
+    }
+    reader.shutdown();
+    assertEquals(List.of("one", "two"), words);
+  }
+
+  @Test
+  void catchUp_shouldIgnoreFilesThatWereNeverTailed() throws IOException {
+    Path file = tempDir.resolve("app.log");
+    Files.writeString(file, "one\ntwo\n");
+    Path compressed = compress(file);
+    GzipCatchUpReader reader = new GzipCatchUpReader(dispatcher, checkpoints, identity -> false, 1);
+
+    reader.catchUp(compressed);
+
+    assertTrue(words.isEmpty());
+  }
+
+  @Test
+  void catchUp_shouldOnlyDecompressTheHeadOfFilesThatWereNeverTailed() throws IOException {
+    Path file = tempDir.resolve("app.log");
+    Files.writeString(file, "one\ntwo\n".repeat(1000));
+    Path compressed = compress(file);
+    byte[] complete = Files.readAllBytes(compressed);
+    // An archive cut short past its head is only read up to the head.
+    Files.write(compressed, Arrays.copyOf(complete, complete.length - 10));
+    GzipCatchUpReader reader = new GzipCatchUpReader(dispatcher, checkpoints, identity -> false, 1);
+
+    reader.catchUp(compressed);
+
+    assertTrue(words.isEmpty());
+    try (FileChannel channel = FileChannel.open(compressed, StandardOpenOption.READ)) {
+      assertNotNull(
+          checkpoints.find(compressed.toString(), FileIdentity.of(compressed, channel), channel));
+    }
+  }
+
+  @Test
+  void catchUp_shouldLeaveFilesStillFollowedToTheirTailer() throws IOException {
+    Path file = tempDir.resolve("app.log");
+    Files.writeString(file, "one\n");
+    LogTailer tailer = new LogTailer(file, dispatcher, false, checkpoints);
+    tailer.read();
+    Files.writeString(file, "two\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    Path compressed = compress(file);
+    GzipCatchUpReader reader =
+        new GzipCatchUpReader(
+            dispatcher, checkpoints, identity -> identity.sameInode(tailer.getIdentity()), 1);
+
+    reader.catchUp(compressed);
+    tailer.read();
+
+    assertEquals(List.of("one", "two"), words);
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class JsonLineParserTest {
+
+  private final EventSchema schema = new EventSchema();
+  private final JsonLineParser parser = new JsonLineParser(schema);
+
+  private LogEvent parse(String line) {
+    LogEvent event = new LogEvent().reset(schema);
+    return parser.parse(line, event) ? event : null;
+  }
+
+  @Test
+  void parse_shouldExtractOnlyTheFieldsInUse() {
+    parser.setFields(Set.of("level", "request.method", "response.status"));
+
+    LogEvent event =
+        parse(
+            "{\"ts\":1,\"request\":{\"method\":\"GET\",\"headers\":{\"a\":[1,2]}},"
+                + "\"level\":\"warn\",\"response\":{\"status\":404,\"bytes\":10}}");
+
+    assertNotNull(event);
+    assertEquals("warn", event.get(schema.indexOf("level")));
+    assertEquals("GET", event.get(schema.indexOf("request.method")));
+    assertEquals("404", event.get(schema.indexOf("response.status")));
+    assertEquals(-1, schema.indexOf("ts"));
+  }
+
+  @Test
+  void parse_shouldFindDottedKeys() {
+    parser.setFields(Set.of("kubernetes.pod.name"));
+
+    LogEvent event = parse("{\"kubernetes\":{\"pod.name\":\"api-0\"}}");
+
+    assertEquals("api-0", event.get(schema.indexOf("kubernetes.pod.name")));
+  }
+
+  @Test
+  void parse_shouldMatchObjectsMissingFieldsInUse() {
+    parser.setFields(Set.of("level", "user"));
+
+    LogEvent event = parse("{\"level\":\"info\",\"user\":null,\"tags\":[\"a\"]}");
+
+    assertNotNull(event);
+    assertEquals("info", event.get(schema.indexOf("level")));
+    assertNull(event.get(schema.indexOf("user")));
+  }
+
+  @Test
+  void parse_shouldNotMatchObjectsWithoutAnyFieldInUse() {
+    parser.setFields(Set.of("path", "level"));
+
+    assertNull(parse("{\"msg\":\"other\",\"path\":\"/x\"}"));
+    assertNotNull(parse("{\"msg\":\"other\",\"level\":\"info\"}"));
+  }
+
+  @Test
+  void parse_shouldNotMatchLinesThatAreNotObjects() {
+    parser.setFields(Set.of("level"));
+
+    assertNull(parse("plain text line"));
+    assertNull(parse("[1, 2]"));
+    assertNull(parse("{\"message\": \"truncated"));
+    assertNull(parse(""));
+  }
+
+  @Test
+  void parse_shouldFlattenEveryScalarWhenUnrestricted() {
+    LogEvent event =
+        parse("{\"level\":\"error\",\"http\":{\"status\":500,\"ok\":false},\"ids\":[1]}");
+
+    assertEquals(Map.of("level", "error", "http.status", "500", "http.ok", "false"), event.asMap());
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.logex.exporter.config.PipelineConfig;
+
+class LinePipelineTest {
+
+  @Test
+  void open_shouldHandleLinesOfEachFileInOrder() throws Exception {
+    List<String> handled = new CopyOnWriteArrayList<>();
+    LineDispatcher dispatcher =
+        new LineDispatcher(
+            Map.of("%{WORD:word}", new LogParser("^%{WORD:word}$", null)),
+            Map.of(
+                "%{WORD:word}",
+                List.of(data -> handled.add(data.get("path") + ":" + data.get("word")))));
+    PipelineConfig config = new PipelineConfig();
+    config.getParse().setWorkers(4);
+    LinePipeline pipeline = new LinePipeline(dispatcher, config);
+    LineSink.Channel first = pipeline.open("first.log");
+    LineSink.Channel second = pipeline.open("second.log");
+
+    for (int i = 0; i < 1000; i++) {
+      first.accept("a" + i);
+      second.accept("b" + i);
+    }
+    first.flush();
+    second.flush();
+    long deadline = System.currentTimeMillis() + 5000;
+    while (handled.size() < 2000 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+
+    assertEquals(
+        IntStream.range(0, 1000).mapToObj(i -> "first.log:a" + i).toList(),
+        handled.stream().filter(entry -> entry.startsWith("first.log")).toList());
+    assertEquals(
+        IntStream.range(0, 1000).mapToObj(i -> "second.log:b" + i).toList(),
+        handled.stream().filter(entry -> entry.startsWith("second.log")).toList());
+    assertEquals(2000, pipeline.getStages().get(0).getProcessed());
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class LineSplitterTest {
+
+  private final List<String> lines = new ArrayList<>();
+  private final List<Boolean> asciiFlags = new ArrayList<>();
+  private final LineSplitter splitter =
+      new LineSplitter(
+          line -> {
+            lines.add(line.toString());
+            asciiFlags.add(((Utf8Line) line).isAscii());
+          });
+
+  private void feed(String content) {
+    byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+    splitter.feed(ByteBuffer.wrap(bytes), 0, bytes.length);
+  }
+
+  @Test
+  void feed_shouldSplitOnNewlinesAndStripCarriageReturns() {
+    feed("first\nsecond\r\n\nlast");
+
+    assertEquals(List.of("first", "second", ""), lines);
+  }
+
+  @Test
+  void feed_shouldCarryUnterminatedLineToNextChunk() {
+    feed("par");
+    feed("tial\nnext\n");
+
+    assertEquals(List.of("partial", "next"), lines);
+  }
+
+  @Test
+  void feed_shouldDecodeNonAsciiLinesLazily() {
+    feed("plain\nstraße ✓\n");
+
+    assertEquals(List.of("plain", "straße ✓"), lines);
+    assertEquals(List.of(true, false), asciiFlags);
+  }
+
+  @Test
+  void feed_shouldJoinMultiByteCharacterSplitAcrossChunks() {
+    byte[] bytes = "é\n".getBytes(StandardCharsets.UTF_8);
+    splitter.feed(ByteBuffer.wrap(bytes), 0, 1);
+    splitter.feed(ByteBuffer.wrap(bytes), 1, bytes.length);
+
+    assertEquals(List.of("é"), lines);
+  }
+
+  @Test
+  void finish_shouldEmitUnterminatedTail() {
+    feed("one\ntwo");
+    splitter.finish();
+
+    assertEquals(List.of("one", "two"), lines);
+  }
+
+  @Test
+  void utf8Line_shouldExposeCharactersWithoutMaterializing() {
+    byte[] bytes = "key=value".getBytes(StandardCharsets.UTF_8);
+    Utf8Line line = new Utf8Line().reset(ByteBuffer.wrap(bytes), 4, bytes.length, true);
+
+    assertEquals(5, line.length());
+    assertEquals('v', line.charAt(0));
+    assertEquals("alu", line.subSequence(1, 4));
+    assertThrows(IndexOutOfBoundsException.class, () -> line.charAt(5));
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class LiteralPrefilterTest {
+
+  private static List<String> found(
+      LiteralPrefilter prefilter, List<String> literals, String line) {
+    long[] bits = new long[prefilter.words()];
+    prefilter.scan(line, bits);
+    List<String> result = new ArrayList<>();
+    for (int id = 0; id < literals.size(); id++) {
+      if ((bits[id >>> 6] & 1L << id) != 0) {
+        result.add(literals.get(id));
+      }
+    }
+    return result;
+  }
+
+  @Test
+  void scan_shouldFindOverlappingLiterals() {
+    List<String> literals = List.of("he", "she", "his", "hers");
+    LiteralPrefilter prefilter = new LiteralPrefilter(literals);
+
+    assertEquals(List.of("he", "she", "hers"), found(prefilter, literals, "ushers"));
+    assertEquals(List.of(), found(prefilter, literals, "nothing"));
+  }
+
+  @Test
+  void scan_shouldHandleNonAsciiCharacters() {
+    List<String> literals = List.of("» ", "größe", " - ");
+    LiteralPrefilter prefilter = new LiteralPrefilter(literals);
+
+    assertEquals(List.of("» ", "größe"), found(prefilter, literals, "a » b: größe=3"));
+  }
+
+  @Test
+  void scan_shouldSupportMoreThan64Literals() {
+    List<String> literals = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      literals.add("k" + i + "=");
+    }
+    LiteralPrefilter prefilter = new LiteralPrefilter(literals);
+
+    assertEquals(List.of("k7=", "k99="), found(prefilter, literals, "k7=1 k99=2"));
+  }
+}
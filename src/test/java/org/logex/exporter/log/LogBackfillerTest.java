@@ -0,0 +1,98 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LogBackfillerTest {
+
+  @TempDir Path tempDir;
+
+  private Queue<String> words;
+  private Queue<String> paths;
+  private LineDispatcher dispatcher;
+
+  @BeforeEach
+  void setUp() {
+    words = new ConcurrentLinkedQueue<>();
+    paths = new ConcurrentLinkedQueue<>();
+    dispatcher =
+        new LineDispatcher(
+            Map.of("%{WORD:word}", new LogParser("^%{WORD:word}$", null)),
+            Map.of(
+                "%{WORD:word}",
+                List.of(
+                    data -> {
+                      words.add(data.get("word"));
+                      paths.add(data.get("path"));
+                    })));
+  }
+
+  @Test
+  void backfill_shouldHandleEveryLineOnceAcrossSplitRanges() throws IOException {
+    List<String> expected = IntStream.range(0, 1000).mapToObj(i -> "line" + i).toList();
+    Path file = tempDir.resolve("app.log");
+    Files.writeString(file, expected.stream().collect(Collectors.joining("\n")));
+
+    long lines = new LogBackfiller(dispatcher, 4, 64).backfill(List.of(file));
+
+    assertEquals(1000, lines);
+    List<String> handled = new ArrayList<>(words);
+    handled.sort(null);
+    List<String> sorted = new ArrayList<>(expected);
+    sorted.sort(null);
+    assertEquals(sorted, handled);
+    assertTrue(paths.stream().allMatch(file.toString()::equals));
+  }
+
+  @Test
+  void backfill_shouldHandleLinesLongerThanARange() throws IOException {
+    String longWord = "a".repeat(1000);
+    Path file = tempDir.resolve("app.log");
+    Files.writeString(file, "short\n" + longWord + "\nend\n");
+
+    long lines = new LogBackfiller(dispatcher, 2, 64).backfill(List.of(file));
+
+    assertEquals(3, lines);
+    assertEquals(3, words.size());
+    assertTrue(words.containsAll(List.of("short", longWord, "end")));
+  }
+
+  @Test
+  void backfill_shouldSkipMissingFiles() throws IOException {
+    Path file = tempDir.resolve("app.log");
+    Files.writeString(file, "one\ntwo\n");
+
+    long lines =
+        new LogBackfiller(dispatcher, 2).backfill(List.of(tempDir.resolve("missing.log"), file));
+
+    assertEquals(2, lines);
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class LogEventTest {
+
+  private final EventSchema schema = new EventSchema();
+
+  @Test
+  void slot_shouldAssignEveryFieldOneStableSlot() {
+    int level = schema.slot("level");
+
+    assertEquals(EventSchema.PATH, schema.indexOf("path"));
+    assertEquals(level, schema.slot("level"));
+    assertNotEquals(level, schema.slot("client"));
+    assertEquals(-1, schema.indexOf("missing"));
+    assertEquals("level", schema.name(level));
+  }
+
+  @Test
+  void reset_shouldClearSlotsAndGrowWithTheSchema() {
+    int level = schema.slot("level");
+    LogEvent event = new LogEvent().reset(schema);
+    event.set(level, "WARN");
+
+    int client = schema.slot("client");
+    event.reset(schema);
+    event.set(client, "example.org");
+
+    assertNull(event.get(level));
+    assertEquals("example.org", event.get(client));
+    assertNull(event.get(-1));
+  }
+
+  @Test
+  void copy_shouldNotChangeWhenTheEventIsReused() {
+    int level = schema.slot("level");
+    LogEvent event = new LogEvent().reset(schema);
+    event.set(EventSchema.PATH, "/var/log/app.log");
+    event.set(level, "WARN");
+
+    LogEvent copy = event.copy();
+    event.reset(schema).set(level, "INFO");
+
+    assertEquals("WARN", copy.get(level));
+    assertEquals(Map.of("path", "/var/log/app.log", "level", "WARN"), copy.asMap());
+  }
+
+  @Test
+  void asMap_shouldKeepFieldsWithoutSlots() {
+    int level = schema.slot("level");
+    LogEvent event = new LogEvent().reset(schema);
+
+    event.setAll(Map.of("level", "WARN", "message", "disk full"));
+
+    assertEquals("WARN", event.get(level));
+    assertEquals(Map.of("level", "WARN", "message", "disk full"), event.asMap());
+  }
+}
@@ -17,10 +17,15 @@ package org.logex.exporter.log;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 class LogParserTest {
 
@@ -97,4 +102,96 @@ class LogParserTest {
     assertNotNull(result);
     assertEquals("192.168.1.1:8080", result.get("connection_info"));
   }
+
+  @Test
+  void parse_shouldCaptureTheSameFieldsOnTheLinearEngine() {
+    String matchFormat =
+        "%{IPORHOST:client_ip} %{USER:ident} \\[%{HTTPDATE:timestamp}\\] \"%{WORD:method}"
+            + " %{URIPATHPARAM:request}\" %{INT:status} (?:%{INT:bytes}|-) %{DATA:agent}$";
+    LogParser jdk = new LogParser(matchFormat, globalPatterns);
+    LogParser linear = new LogParser(matchFormat, globalPatterns, RegexEngine.LINEAR);
+
+    assertEquals(RegexEngine.LINEAR, linear.getEngine());
+    for (String line :
+        List.of(
+            "10.0.0.1 - [07/Aug/2025:10:00:00 +0800] \"GET /a?b=c HTTP\" 200 1234 curl/8.0",
+            "host.example.com bob [07/Aug/2025:10:00:00 +0800] \"POST /x\" 404 - \"Mozilla\"",
+            "not a log line")) {
+      assertEquals(jdk.parse(line), linear.parse(line), line);
+    }
+    assertEquals(
+        "200", linear.parse("h - [07/Aug/2025:10:00:00 +0800] \"GET /\" 200 1 a").get("status"));
+  }
+
+  @Test
+  void constructor_shouldFallBackToJdkEngineForUnsupportedPatterns() {
+    // NUMBER relies on an atomic group, which cannot run in linear time.
+    LogParser parser =
+        new LogParser("took %{NUMBER:duration}ms", globalPatterns, RegexEngine.LINEAR);
+
+    assertEquals(RegexEngine.JDK, parser.getEngine());
+    assertEquals("1.5", parser.parse("took 1.5ms").get("duration"));
+    assertEquals(
+        RegexEngine.JDK,
+        new LogParser("took %{INT:duration:int}ms", globalPatterns, RegexEngine.LINEAR)
+            .getEngine());
+  }
+
+  @Test
+  void parse_shouldOnlyExtractTheFieldsInUse() {
+    String matchFormat =
+        "\\[%{DATA:thread}\\] (?:%{IP:client}|%{HOSTNAME:client}) %{LOGLEVEL:level} %{GREEDYDATA:message}";
+    for (RegexEngine engine : RegexEngine.values()) {
+      LogParser parser = new LogParser(matchFormat, globalPatterns, engine);
+      parser.setFields(Set.of("level", "client"));
+
+      assertEquals(
+          Map.of("level", "WARN", "client", "example.org"),
+          parser.parse("[main] example.org WARN disk is \"full\""),
+          engine.name());
+      assertSame(LogParser.NO_MATCH, parser.parse("[main] example.org"), engine.name());
+    }
+  }
+
+  @Test
+  void parse_shouldReportMatchesWithoutCapturedFields() {
+    LogParser parser = new LogParser("ERROR", globalPatterns);
+    parser.setFields(Set.of());
+
+    assertEquals(Map.of(), parser.parse("an ERROR occurred"));
+    assertNotSame(LogParser.NO_MATCH, parser.parse("an ERROR occurred"));
+    assertSame(LogParser.NO_MATCH, parser.parse("all good"));
+  }
+
+  @Test
+  void parse_shouldFillTheSlotsOfTheFieldsInUse() {
+    EventSchema schema = new EventSchema();
+    for (RegexEngine engine : RegexEngine.values()) {
+      LogParser parser =
+          new LogParser("%{LOGLEVEL:level} %{GREEDYDATA:message}", null, engine, schema);
+      parser.setFields(Set.of("level"));
+      LogEvent event = new LogEvent().reset(schema);
+
+      assertTrue(parser.parse("WARN disk is full", event), engine.name());
+      assertEquals("WARN", event.get(schema.indexOf("level")), engine.name());
+      assertEquals(-1, schema.indexOf("message"), engine.name());
+      assertFalse(parser.parse("disk is full", event.reset(schema)), engine.name());
+    }
+  }
+
+  @Test
+  void parse_shouldAbandonMatchesExceedingTheTimeBudget(@TempDir Path tempDir) throws Exception {
+    Path samples = tempDir.resolve("timeouts.log");
+    LogParser parser = new LogParser("^(?<run>(a|aa)+)+c", globalPatterns);
+    parser.setMatchTimeout(50, new TimeoutSampler(samples));
+    String line = "a".repeat(64);
+
+    long start = System.nanoTime();
+    assertSame(LogParser.NO_MATCH, parser.parse(line));
+    assertTrue(System.nanoTime() - start < 5_000_000_000L);
+
+    assertEquals(1, parser.getTimeouts());
+    assertEquals(Map.of("run", "aa"), parser.parse("aac"));
+    assertEquals(List.of("^(?<run>(a|aa)+)+c\t" + line), Files.readAllLines(samples));
+  }
 }
@@ -22,9 +22,13 @@ import java.io.IOException;
 import java.lang.reflect.Field;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -38,7 +42,7 @@ class LogTailerManagerTest {
   private LogTailerManager logTailerManager;
   private Map<String, LogParser> parsers;
   private Map<String, List<LogHandler>> handlers;
-  private Map<Path, LogTailer> activeTailers;
+  private Map<Object, LogTailer> activeTailers;
 
   @BeforeEach
   void setUp() throws Exception {
@@ -63,7 +67,18 @@ class LogTailerManagerTest {
 
     Field activeTailersField = LogTailerManager.class.getDeclaredField("activeTailers");
     activeTailersField.setAccessible(true);
-    activeTailers = (Map<Path, LogTailer>) activeTailersField.get(logTailerManager);
+    activeTailers = (Map<Object, LogTailer>) activeTailersField.get(logTailerManager);
+  }
+
+  private static Object fileKey(Path path) throws IOException {
+    return Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+  }
+
+  private LogTailer mockTailer(Path path) {
+    LogTailer tailer = mock(LogTailer.class);
+    when(tailer.getPath()).thenReturn(path);
+    when(tailer.getOrigin()).thenReturn(path.toString());
+    return tailer;
   }
 
   @Test
@@ -83,6 +98,49 @@ class LogTailerManagerTest {
     assertEquals(mockHandler, handlers.get(matchFormat).get(0));
   }
 
+  @Test
+  void register_shouldGiveJsonHandlersOfOtherFieldsTheirOwnParser() {
+    logTailerManager.register(
+        "json", null, null, Set.of("path", "level"), null, mock(LogHandler.class));
+    logTailerManager.register(
+        "json", null, null, Set.of("level", "path"), null, mock(LogHandler.class));
+    logTailerManager.register(
+        "json", null, null, Set.of("path", "user"), null, mock(LogHandler.class));
+
+    assertEquals(2, parsers.size());
+    assertEquals(2, handlers.get("format:json:level,path").size());
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            logTailerManager.register(
+                "json", "%{WORD:word}", null, Set.of("level"), null, mock(LogHandler.class)));
+  }
+
+  @Test
+  void register_shouldKeepPatternOutsideOfGroupSeeingLinesTheGroupClaims() throws Exception {
+    List<String> grouped = new ArrayList<>();
+    List<String> ungrouped = new ArrayList<>();
+    logTailerManager.register(
+        null, "%{WORD:first}", null, null, "app", data -> grouped.add(data.get("first")));
+    logTailerManager.register(
+        null, "%{WORD:word}", null, null, "app", data -> grouped.add(data.get("word")));
+    logTailerManager.register(
+        null, "%{WORD:word}", null, null, null, data -> ungrouped.add(data.get("word")));
+    Field dispatcherField = LogTailerManager.class.getDeclaredField("dispatcher");
+    dispatcherField.setAccessible(true);
+    LineDispatcher dispatcher = (LineDispatcher) dispatcherField.get(logTailerManager);
+
+    dispatcher.dispatch("hello", "app.log");
+
+    // Only the first pattern of the group to match handles the line.
+    assertEquals(3, parsers.size());
+    assertEquals(List.of("hello"), grouped);
+    assertEquals(List.of("hello"), ungrouped);
+    assertEquals(
+        Set.of("%{WORD:first}", "%{WORD:word}"),
+        Set.copyOf(logTailerManager.getExclusiveGroups().get(0).getPatterns()));
+  }
+
   @Test
   void shouldStartTailerForNewFile() throws IOException {
     // Given
@@ -96,16 +154,123 @@ class LogTailerManagerTest {
 
     // Then
     assertEquals(1, activeTailers.size());
-    assertTrue(activeTailers.containsKey(logFile));
+    assertEquals(logFile, activeTailers.get(fileKey(logFile)).getPath());
+  }
+
+  @Test
+  void shouldOnlyTailFilesMatchingOneOfThePaths() throws IOException {
+    // Given
+    Path nginx = Files.createDirectories(tempDir.resolve("nginx"));
+    Path app = Files.createDirectories(tempDir.resolve("app/current"));
+    Files.createFile(nginx.resolve("access.log"));
+    Files.createFile(app.resolve("app.log"));
+    Files.createFile(tempDir.resolve("app/app.log"));
+    when(mockAppConfig.getPath()).thenReturn(nginx.resolve("*.log").toString());
+    when(mockAppConfig.getPaths())
+        .thenReturn(List.of(tempDir.resolve("*/current/*.log").toString()));
+
+    // When
+    logTailerManager.findAndTailFiles();
+
+    // Then
+    assertEquals(2, activeTailers.size());
+    assertNotNull(activeTailers.get(fileKey(nginx.resolve("access.log"))));
+    assertNotNull(activeTailers.get(fileKey(app.resolve("app.log"))));
+  }
+
+  @Test
+  void shouldFollowRenamedFileInsteadOfTailingItAgain() throws IOException {
+    // Given
+    Path logFile = tempDir.resolve("app.log");
+    Files.writeString(logFile, "one\n");
+    when(mockAppConfig.getPath()).thenReturn(tempDir.resolve("app*").toString());
+    logTailerManager.findAndTailFiles();
+    LogTailer tailer = activeTailers.get(fileKey(logFile));
+
+    // When
+    Path rotated = Files.move(logFile, tempDir.resolve("app.log.1"));
+    Files.writeString(logFile, "two\n");
+    logTailerManager.findAndTailFiles();
+
+    // Then
+    assertEquals(2, activeTailers.size());
+    assertSame(tailer, activeTailers.get(fileKey(rotated)));
+    assertEquals(rotated, tailer.getPath());
+    assertEquals(logFile.toString(), tailer.getOrigin());
+    assertEquals(logFile, activeTailers.get(fileKey(logFile)).getPath());
+  }
+
+  @Test
+  void shouldDrainRotatedFileBeforeTailingItsReplacement() throws Exception {
+    // Given
+    Path logFile = tempDir.resolve("test.log");
+    Files.writeString(logFile, "first\n");
+    when(mockAppConfig.getPath()).thenReturn(tempDir.resolve("*.log").toString());
+    List<String> words = new java.util.concurrent.CopyOnWriteArrayList<>();
+    logTailerManager.register("%{WORD:word}", data -> words.add(data.get("word")));
+    logTailerManager.start();
+    verify(mockAppConfig, timeout(5000).atLeastOnce()).getFileScanIntervalSeconds();
+    long deadline = System.currentTimeMillis() + 5000;
+    while (words.isEmpty() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+
+    // When
+    Files.writeString(logFile, "second\n", StandardOpenOption.APPEND);
+    Files.move(logFile, tempDir.resolve("test.log.1"));
+    Files.writeString(logFile, "third\n");
+
+    // Then
+    deadline = System.currentTimeMillis() + 5000;
+    while (words.size() < 3 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(List.of("first", "second", "third"), words);
+  }
+
+  @Test
+  void shouldHandleLinesAppendedAfterStart() throws Exception {
+    // Given
+    Path logFile = tempDir.resolve("test.log");
+    Files.createFile(logFile);
+    when(mockAppConfig.getPath()).thenReturn(tempDir.resolve("*.log").toString());
+    LogHandler mockHandler = mock(LogHandler.class);
+    logTailerManager.register("%{WORD:word}", mockHandler);
+
+    // When
+    logTailerManager.start();
+    verify(mockHandler, after(500).never()).handle(any());
+    Files.writeString(logFile, "hello\n");
+
+    // Then
+    verify(mockHandler, timeout(5000)).handle(argThat(data -> "hello".equals(data.get("word"))));
+  }
+
+  @Test
+  void shouldDiscoverFilesInNewDirectoriesWithoutScanning() throws Exception {
+    // Given
+    when(mockAppConfig.getFileScanIntervalSeconds()).thenReturn(3600);
+    when(mockAppConfig.getPath()).thenReturn(tempDir.resolve("**/*.log").toString());
+    LogHandler mockHandler = mock(LogHandler.class);
+    logTailerManager.register("%{WORD:word}", mockHandler);
+    logTailerManager.start();
+    verify(mockHandler, after(500).never()).handle(any());
+
+    // When
+    Path directory = Files.createDirectories(tempDir.resolve("pods/app"));
+    Files.writeString(directory.resolve("test.log"), "hello\n");
+
+    // Then
+    verify(mockHandler, timeout(5000)).handle(argThat(data -> "hello".equals(data.get("word"))));
   }
 
   @Test
   void shouldRemoveInactiveTailer() throws Exception {
     // Given
-    LogTailer mockTailer = mock(LogTailer.class);
     Path inactiveFile = tempDir.resolve("inactive.log");
     Files.createFile(inactiveFile);
-    activeTailers.put(inactiveFile, mockTailer);
+    LogTailer mockTailer = mockTailer(inactiveFile);
+    activeTailers.put(fileKey(inactiveFile), mockTailer);
 
     // When
     // Manually trigger cleanup after a delay
@@ -122,7 +287,7 @@ class LogTailerManagerTest {
     // Given
     Path logFile = tempDir.resolve("test.log");
     Files.createFile(logFile);
-    activeTailers.put(logFile, mock(LogTailer.class)); // Pre-add the tailer
+    activeTailers.put(fileKey(logFile), mockTailer(logFile)); // Pre-add the tailer
 
     when(mockAppConfig.getPath()).thenReturn(tempDir.resolve("*.log").toString());
 
@@ -136,10 +301,10 @@ class LogTailerManagerTest {
   @Test
   void shouldKeepActiveTailer() throws Exception {
     // Given
-    LogTailer mockTailer = mock(LogTailer.class);
     Path activeFile = tempDir.resolve("active.log");
     Files.createFile(activeFile);
-    activeTailers.put(activeFile, mockTailer);
+    LogTailer mockTailer = mockTailer(activeFile);
+    activeTailers.put(fileKey(activeFile), mockTailer);
 
     // When
     // Simulate file being active (no sleep needed as it's not inactive)
@@ -149,4 +314,22 @@ class LogTailerManagerTest {
     verify(mockTailer, never()).stop();
     assertEquals(1, activeTailers.size());
   }
+
+  @Test
+  void shouldDrainAndRemoveTailerOfDeletedFile() throws Exception {
+    // Given
+    Path deletedFile = tempDir.resolve("deleted.log");
+    Files.createFile(deletedFile);
+    LogTailer mockTailer = mockTailer(deletedFile);
+    activeTailers.put(fileKey(deletedFile), mockTailer);
+
+    // When
+    Files.delete(deletedFile);
+    logTailerManager.cleanupInactiveTailers();
+
+    // Then
+    assertTrue(activeTailers.isEmpty());
+    verify(mockTailer).read();
+    verify(mockTailer).stop();
+  }
 }
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LogTailerTest {
+
+  @TempDir Path tempDir;
+
+  private LineDispatcher dispatcher;
+  private List<String> words;
+  private CheckpointStore checkpoints;
+
+  @BeforeEach
+  void setUp() {
+    words = new ArrayList<>();
+    checkpoints = new CheckpointStore(null);
+    dispatcher =
+        new LineDispatcher(
+            Map.of("%{WORD:word}", new LogParser("^%{WORD:word}$", null)),
+            Map.of("%{WORD:word}", List.of(data -> words.add(data.get("word")))));
+  }
+
+  private void append(Path file, String content) throws IOException {
+    Files.writeString(
+        file,
+        content,
+        StandardCharsets.UTF_8,
+        StandardOpenOption.CREATE,
+        StandardOpenOption.APPEND);
+  }
+
+  @Test
+  void read_shouldHandleOnlyCompleteLines() throws IOException {
+    Path file = tempDir.resolve("app.log");
+    append(file, "first\nsecond\r\nthi");
+    LogTailer tailer = new LogTailer(file, dispatcher, false, checkpoints);
+
+    tailer.read();
+    assertEquals(List.of("first", "second"), words);
+
+    append(file, "rd\n");
+    tailer.read();
+    assertEquals(List.of("first", "second", "third"), words);
+  }
+
+  @Test
+  void read_fromEndShouldSkipExistingContent() throws IOException {
+    Path file = tempDir.resolve("app.log");
+    append(file, "old\n");
+    LogTailer tailer = new LogTailer(file, dispatcher, true, checkpoints);
+
+    tailer.read();
+    append(file, "new\n");
+    tailer.read();
+
+    assertEquals(List.of("new"), words);
+  }
+
+  @Test
+  void read_shouldRestartFromBeginningAfterTruncation() throws IOException {
+    Path file = tempDir.resolve("app.log");
+    append(file, "before\n");
+    LogTailer tailer = new LogTailer(file, dispatcher, false, checkpoints);
+    tailer.read();
+
+    Files.writeString(file, "after\n", StandardCharsets.UTF_8);
+    tailer.read();
+
+    assertEquals(List.of("before", "after"), words);
+  }
+
+  @Test
+  void read_shouldDetectTruncationOfFileThatGrewPastOffset()
+      throws IOException, InterruptedException {
+    Path file = tempDir.resolve("app.log");
+    append(file, "before\n");
+    LogTailer tailer = new LogTailer(file, dispatcher, false, checkpoints);
+    tailer.read();
+
+    Files.writeString(file, "after\nlonger\nlines\n", StandardCharsets.UTF_8);
+    // The head of a file that did not shrink since the last read is compared once per interval.
+    Thread.sleep(LogTailer.FINGERPRINT_CHECK_MILLIS + 100);
+    tailer.read();
+
+    assertEquals(List.of("before", "after", "longer", "lines"), words);
+  }
+
+  @Test
+  void read_shouldKeepFollowingRenamedFile() throws IOException {
+    Path file = tempDir.resolve("app.log");
+    append(file, "one\n");
+    LogTailer tailer = new LogTailer(file, dispatcher, false, checkpoints);
+    tailer.read();
+
+    Path rotated = Files.move(file, tempDir.resolve("app.log.1"));
+    append(rotated, "two\n");
+    append(file, "other\n");
+    tailer.relocate(rotated);
+    tailer.read();
+
+    assertEquals(List.of("one", "two"), words);
+    assertEquals(rotated, tailer.getPath());
+    assertEquals(file.toString(), tailer.getOrigin());
+  }
+
+  @Test
+  void read_shouldJoinLinesSpanningSeveralBuffers() throws IOException {
+    Path file = tempDir.resolve("app.log");
+    String longWord = "a".repeat(200_000);
+    append(file, "short\n" + longWord + "\nend\n");
+    LogTailer tailer = new LogTailer(file, dispatcher, false, checkpoints);
+
+    tailer.read();
+
+    assertEquals(List.of("short", longWord, "end"), words);
+  }
+
+  @Test
+  void schedule_shouldReadWholeFileInBoundedTurns() throws IOException {
+    Path file = tempDir.resolve("app.log");
+    append(file, "line\n".repeat(500_000));
+    LogTailer tailer = new LogTailer(file, dispatcher, false, checkpoints);
+    List<Runnable> queue = new ArrayList<>();
+
+    tailer.schedule(queue::add);
+    tailer.schedule(queue::add);
+    assertEquals(1, queue.size());
+    int turns = 0;
+    while (!queue.isEmpty()) {
+      queue.remove(0).run();
+      turns++;
+    }
+
+    assertEquals(500_000, words.size());
+    assertTrue(turns > 1);
+  }
+
+  @Test
+  void schedule_shouldKeepReadingAfterHandlerFailure() throws IOException {
+    Path file = tempDir.resolve("app.log");
+    LogTailer tailer =
+        new LogTailer(
+            file,
+            new LineDispatcher(
+                Map.of("%{WORD:word}", new LogParser("^%{WORD:word}$", null)),
+                Map.of(
+                    "%{WORD:word}",
+                    List.of(
+                        data -> {
+                          if (data.get("word").equals("bad")) {
+                            throw new NumberFormatException(data.get("word"));
+                          }
+                          words.add(data.get("word"));
+                        }))),
+            false,
+            checkpoints);
+    List<Runnable> queue = new ArrayList<>();
+
+    append(file, "one\nbad\ntwo\n");
+    tailer.schedule(queue::add);
+    queue.remove(0).run();
+    append(file, "three\n");
+    tailer.schedule(queue::add);
+    assertEquals(1, queue.size());
+    queue.remove(0).run();
+
+    assertEquals(List.of("one", "two", "three"), words);
+  }
+
+  @Test
+  void read_shouldScanLargeBacklogThroughMemoryMapping() throws IOException {
+    Path file = tempDir.resolve("app.log");
+    String word = "b".repeat(1023);
+    append(file, (word + "\n").repeat(10_000));
+    LogTailer tailer = new LogTailer(file, dispatcher, false, checkpoints);
+
+    tailer.read();
+
+    assertEquals(10_000, words.size());
+    assertEquals(word, words.get(9_999));
+  }
+
+  @Test
+  void read_shouldResumeFromCheckpointOfSameFile() throws IOException {
+    Path file = tempDir.resolve("app.log");
+    append(file, "one\ntw");
+    LogTailer tailer = new LogTailer(file, dispatcher, false, checkpoints);
+    tailer.read();
+    tailer.stop();
+
+    append(file, "o\nthree\n");
+    new LogTailer(file, dispatcher, true, checkpoints).read();
+
+    assertEquals(List.of("one", "two", "three"), words);
+  }
+
+  @Test
+  void read_shouldReadReplacedFileFromBeginningDespiteCheckpoint() throws IOException {
+    Path file = tempDir.resolve("app.log");
+    append(file, "one\n");
+    LogTailer tailer = new LogTailer(file, dispatcher, false, checkpoints);
+    tailer.read();
+    tailer.stop();
+
+    Files.delete(file);
+    append(file, "two\nthree\n");
+    new LogTailer(file, dispatcher, true, checkpoints).read();
+
+    assertEquals(List.of("one", "two", "three"), words);
+  }
+
+  @Test
+  void stop_shouldIgnoreFurtherReads() throws IOException {
+    Path file = tempDir.resolve("app.log");
+    append(file, "one\n");
+    LogTailer tailer = new LogTailer(file, dispatcher, false, checkpoints);
+
+    tailer.stop();
+    tailer.read();
+
+    assertTrue(words.isEmpty());
+  }
+}
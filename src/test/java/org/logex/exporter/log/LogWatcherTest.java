@@ -0,0 +1,67 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LogWatcherTest {
+
+  @TempDir Path tempDir;
+
+  @Test
+  void run_shouldKeepDeliveringEventsAfterListenerFails() throws Exception {
+    List<Path> created = new CopyOnWriteArrayList<>();
+    LogWatcher watcher =
+        new LogWatcher(
+            Runnable::run,
+            directory -> true,
+            file -> {
+              if (file.getFileName().toString().startsWith("bad")) {
+                throw new IllegalStateException("listener failed");
+              }
+              created.add(file);
+            },
+            file -> {
+              throw new IllegalStateException("listener failed");
+            });
+    watcher.watchDirectory(tempDir);
+    Thread thread = new Thread(watcher);
+    thread.start();
+    try {
+      Files.writeString(tempDir.resolve("bad.log"), "one\n");
+      // Lets the failing events be handled on their own before the next file is created.
+      Thread.sleep(200);
+      Path good = tempDir.resolve("good.log");
+      Files.writeString(good, "two\n");
+      for (int i = 0; i < 200 && !created.contains(good.toAbsolutePath()); i++) {
+        Thread.sleep(50);
+      }
+
+      assertTrue(thread.isAlive());
+      assertTrue(created.contains(good.toAbsolutePath()), created.toString());
+    } finally {
+      thread.interrupt();
+      thread.join(5000);
+    }
+  }
+}
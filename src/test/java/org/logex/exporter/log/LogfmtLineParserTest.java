@@ -0,0 +1,63 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class LogfmtLineParserTest {
+
+  private final EventSchema schema = new EventSchema();
+  private final LogfmtLineParser parser = new LogfmtLineParser(schema);
+
+  private LogEvent parse(String line) {
+    LogEvent event = new LogEvent().reset(schema);
+    return parser.parse(line, event) ? event : null;
+  }
+
+  @Test
+  void parse_shouldExtractOnlyTheFieldsInUse() {
+    parser.setFields(Set.of("level", "msg", "status"));
+
+    LogEvent event = parse("ts=2025-01-01 level=warn msg=\"disk \\\"sda\\\" full\" status=507 x=1");
+
+    assertNotNull(event);
+    assertEquals("warn", event.get(schema.indexOf("level")));
+    assertEquals("disk \"sda\" full", event.get(schema.indexOf("msg")));
+    assertEquals("507", event.get(schema.indexOf("status")));
+    assertEquals(-1, schema.indexOf("ts"));
+  }
+
+  @Test
+  void parse_shouldExtractEveryPairWhenUnrestricted() {
+    LogEvent event = parse("  level=info  cached msg=\"\" empty= ");
+
+    assertEquals(Map.of("level", "info", "cached", "true", "msg", "", "empty", ""), event.asMap());
+  }
+
+  @Test
+  void parse_shouldNotMatchLinesWithoutPairs() {
+    parser.setFields(Set.of("level"));
+
+    assertNull(parse("just some words"));
+    assertNull(parse(""));
+    assertNull(parse("no severity here=1"));
+    assertNotNull(parse("a level=info"));
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class ParseResultCacheTest {
+
+  private static final String PATH = "/var/log/app.log";
+
+  @Test
+  void get_shouldOnlyFindIdenticalLinesOfTheSameFile() {
+    ParseResultCache cache = new ParseResultCache(1, 64);
+    Runnable[] updates = {() -> {}};
+    cache.put("GET /health 200", PATH, updates);
+
+    assertSame(updates, cache.get(new StringBuilder("GET /health 200"), PATH));
+    assertNull(cache.get("GET /health 500", PATH));
+    assertNull(cache.get("GET /health 200", "/var/log/other.log"));
+    assertEquals(1, cache.getHits());
+    assertEquals(2, cache.getMisses());
+  }
+
+  @Test
+  void put_shouldSkipLongLinesAndTrackSize() {
+    ParseResultCache cache = new ParseResultCache(16, 8);
+    cache.put("too long a line", PATH, new Runnable[0]);
+    assertEquals(0, cache.getBytes());
+
+    cache.put("short", PATH, new Runnable[0]);
+    assertTrue(cache.getBytes() > 0);
+
+    cache.clear();
+    assertEquals(0, cache.getBytes());
+    assertNull(cache.get("short", PATH));
+  }
+
+  @Test
+  void dispatch_shouldReplayUpdatesOfCachedLines() {
+    List<String> parsed = new ArrayList<>();
+    List<String> recorded = new ArrayList<>();
+    LogEventHandler handler =
+        new LogEventHandler() {
+          private int slot;
+
+          @Override
+          public void bind(EventSchema schema) {
+            slot = schema.slot("word");
+          }
+
+          @Override
+          public void handle(LogEvent event) {
+            resolve(event).run();
+          }
+
+          @Override
+          public Runnable resolve(LogEvent event) {
+            String word = event.get(slot);
+            parsed.add(word);
+            return () -> recorded.add(word);
+          }
+
+          @Override
+          public void handle(Map<String, String> data) {
+            throw new UnsupportedOperationException();
+          }
+        };
+    LogParser parser = new LogParser("^%{WORD:word}$", null);
+    parser.setFields(Set.of("word"));
+    handler.bind(parser.getSchema());
+    LineDispatcher dispatcher =
+        new LineDispatcher(Map.of("word", parser), Map.of("word", List.of(handler)));
+    dispatcher.setCache(new ParseResultCache(64, 64));
+
+    dispatcher.dispatch("hello", PATH);
+    dispatcher.dispatch("hello", PATH);
+    dispatcher.dispatch("not a word", PATH);
+    dispatcher.dispatch("not a word", PATH);
+
+    assertEquals(List.of("hello"), parsed);
+    assertEquals(List.of("hello", "hello"), recorded);
+    assertEquals(2, dispatcher.getCache().getHits());
+  }
+
+  @Test
+  void dispatch_shouldRecordGroupStatisticsOfCachedLines() {
+    List<String> words = new ArrayList<>();
+    LineDispatcher dispatcher =
+        new LineDispatcher(
+            Map.of(
+                "word", new LogParser("^%{WORD:word}$", null),
+                "number", new LogParser("^%{NUMBER:number}$", null)),
+            Map.of(
+                "word", List.of(data -> words.add(data.get("word"))),
+                "number", List.of(data -> {})),
+            Map.of("word", "app", "number", "app"));
+    dispatcher.setCache(new ParseResultCache(64, 64));
+
+    dispatcher.dispatch("hello", PATH);
+    dispatcher.dispatch("hello", PATH);
+    dispatcher.dispatch("not a word", PATH);
+    dispatcher.dispatch("not a word", PATH);
+
+    ExclusiveGroup group = dispatcher.getExclusiveGroups().get(0);
+    int word = group.getPatterns().indexOf("word");
+    assertEquals(2, group.getHits(word));
+    assertEquals(2, group.getMisses());
+    assertEquals(List.of("hello", "hello"), words);
+  }
+
+  @Test
+  void dispatch_shouldNotCacheLinesWhoseMatchTimedOut() {
+    // The back reference keeps the pattern out of the regex set, which would rule the line out.
+    LogParser parser = new LogParser("^(?<run>(a|aa)+)+\\1$", null);
+    parser.setMatchTimeout(50, null);
+    LineDispatcher dispatcher =
+        new LineDispatcher(Map.of("run", parser), Map.of("run", List.of(data -> {})));
+    dispatcher.setCache(new ParseResultCache(64, 128));
+    String line = "a".repeat(64) + "b";
+
+    dispatcher.dispatch(line, PATH);
+    dispatcher.dispatch(line, PATH);
+
+    assertEquals(2, parser.getTimeouts());
+    assertEquals(0, dispatcher.getCache().getHits());
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+
+class PathGlobTest {
+
+  @Test
+  void compile_shouldUseLiteralSegmentsAsBase() {
+    assertEquals(Path.of("/var/log"), PathGlob.compile("/var/log/*/app/*.log").getBase());
+    assertEquals(Path.of("/var/log"), PathGlob.compile("/var/log/app.log").getBase());
+  }
+
+  @Test
+  void matches_shouldMatchEverySegment() {
+    PathGlob glob = PathGlob.compile("/path/*/to/**/your/*.log");
+
+    assertTrue(glob.matches(Path.of("/path/a/to/your/app.log")));
+    assertTrue(glob.matches(Path.of("/path/a/to/x/y/your/app.log")));
+    assertFalse(glob.matches(Path.of("/path/a/b/to/your/app.log")));
+    assertFalse(glob.matches(Path.of("/path/a/to/your/app.txt")));
+    assertFalse(glob.matches(Path.of("/path/a/to/your/nested/app.log")));
+    assertFalse(glob.matches(Path.of("/other/a/to/your/app.log")));
+  }
+
+  @Test
+  void matches_shouldNotCrossDirectoriesWithSingleStar() {
+    PathGlob glob = PathGlob.compile("/var/log/*.log");
+
+    assertTrue(glob.matches(Path.of("/var/log/app.log")));
+    assertFalse(glob.matches(Path.of("/var/log/nginx/access.log")));
+  }
+
+  @Test
+  void canContain_shouldPruneDirectoriesThatCannotMatch() {
+    PathGlob glob = PathGlob.compile("/path/*/to/**/your/*.log");
+
+    assertTrue(glob.canContain(Path.of("/")));
+    assertTrue(glob.canContain(Path.of("/path")));
+    assertTrue(glob.canContain(Path.of("/path/a")));
+    assertTrue(glob.canContain(Path.of("/path/a/to")));
+    assertTrue(glob.canContain(Path.of("/path/a/to/any/depth")));
+    assertFalse(glob.canContain(Path.of("/path/a/from")));
+    assertFalse(glob.canContain(Path.of("/other")));
+  }
+
+  @Test
+  void canContain_shouldRejectDirectoriesBelowTheLastSegment() {
+    PathGlob glob = PathGlob.compile("/var/log/*/*.log");
+
+    assertTrue(glob.canContain(Path.of("/var/log/nginx")));
+    assertFalse(glob.canContain(Path.of("/var/log/nginx/old")));
+  }
+}
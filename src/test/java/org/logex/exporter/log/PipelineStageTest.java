@@ -0,0 +1,117 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.logex.exporter.config.StageConfig;
+
+class PipelineStageTest {
+
+  private final List<Integer> consumed = new CopyOnWriteArrayList<>();
+  private final CountDownLatch release = new CountDownLatch(1);
+  private final CountDownLatch started = new CountDownLatch(1);
+
+  private StageConfig config(String policy, int capacity) {
+    StageConfig config = new StageConfig();
+    config.setWorkers(1);
+    config.setQueueCapacity(capacity);
+    config.setPolicy(policy);
+    config.setSampleRatio(0.5);
+    return config;
+  }
+
+  /** A stage whose worker holds the first item until released. */
+  private PipelineStage<Integer> blockedStage(String policy, int capacity) throws Exception {
+    PipelineStage<Integer> stage =
+        new PipelineStage<>(
+            "test",
+            config(policy, capacity),
+            item -> 1,
+            item -> {
+              started.countDown();
+              try {
+                release.await();
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+              consumed.add(item);
+            });
+    stage.submit(0, 0);
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    return stage;
+  }
+
+  private void awaitProcessed(PipelineStage<?> stage, long count) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000;
+    while (stage.getProcessed() < count && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+  }
+
+  @Test
+  void submit_shouldProcessItemsOfOneKeyInOrder() throws Exception {
+    PipelineStage<Integer> stage =
+        new PipelineStage<>("test", config("block", 4), item -> 1, consumed::add);
+
+    for (int i = 0; i < 100; i++) {
+      stage.submit(7, i);
+    }
+    awaitProcessed(stage, 100);
+
+    assertEquals(100, consumed.size());
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i, consumed.get(i));
+    }
+    assertEquals(0, stage.getDropped());
+    assertEquals(0, stage.getDepth());
+  }
+
+  @Test
+  void submit_shouldDropOldestItemsWhenFull() throws Exception {
+    PipelineStage<Integer> stage = blockedStage("drop_oldest", 2);
+
+    for (int i = 1; i <= 4; i++) {
+      stage.submit(0, i);
+    }
+    assertEquals(2, stage.getDepth());
+    release.countDown();
+    awaitProcessed(stage, 3);
+
+    assertEquals(List.of(0, 3, 4), consumed);
+    assertEquals(2, stage.getDropped());
+  }
+
+  @Test
+  void submit_shouldSampleItemsAboveHalfCapacity() throws Exception {
+    PipelineStage<Integer> stage = blockedStage("sample", 4);
+
+    for (int i = 1; i <= 6; i++) {
+      stage.submit(0, i);
+    }
+    release.countDown();
+    awaitProcessed(stage, 5);
+
+    // 1 and 2 are admitted freely, then one item in two until the queue is full.
+    assertEquals(List.of(0, 1, 2, 3, 5), consumed);
+    assertEquals(2, stage.getDropped());
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.log;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class RequiredLiteralsTest {
+
+  @Test
+  void of_shouldFindLiteralsOfTheSampleConfig() {
+    LogParser parser =
+        new LogParser(
+            "\\[%{DATA:thread}\\] %{LEVEL:level} %{DATA:class} - %{GREEDYDATA:message}",
+            Map.of("LEVEL", "(DEBUG|TRACE|INFO|WARNING|ERROR|FATAL)"));
+
+    assertEquals(Set.of("] ", " - "), parser.getRequiredLiterals());
+  }
+
+  @Test
+  void of_shouldSkipOptionalAndRepeatedParts() {
+    assertEquals(Set.of("GET ", " HTTP/1"), RequiredLiterals.of("GET (/x)? HTTP/1.1?"));
+    assertEquals(Set.of("ab", "de"), RequiredLiterals.of("abc*de"));
+    assertEquals(Set.of("start"), RequiredLiterals.of("start(?:middle){0,2}"));
+    assertEquals(Set.of("start", "middle"), RequiredLiterals.of("start(?:middle)+"));
+  }
+
+  @Test
+  void of_shouldIgnoreAlternativesAndClasses() {
+    assertEquals(Set.of(), RequiredLiterals.of("error|warning"));
+    assertEquals(Set.of(" at "), RequiredLiterals.of("(error|warning) at [a-z|]+"));
+    assertEquals(Set.of("id="), RequiredLiterals.of("id=\\d+[]x]"));
+  }
+
+  @Test
+  void of_shouldGiveUpOnUnsupportedConstructs() {
+    assertEquals(Set.of(), RequiredLiterals.of("(?i)error code"));
+    assertEquals(Set.of(), RequiredLiterals.of("(a+)b \\1 done"));
+    assertEquals(Set.of(), RequiredLiterals.of("\\x41bc def"));
+  }
+}
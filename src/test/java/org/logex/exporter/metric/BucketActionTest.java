@@ -0,0 +1,55 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.metric;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.logex.exporter.config.LabelConfig;
+
+class BucketActionTest {
+
+  private BucketAction action;
+  private LabelConfig config;
+
+  @BeforeEach
+  void setUp() {
+    action = new BucketAction();
+    config = new LabelConfig();
+    config.setBuckets(List.of(0.1, 1.0, 10.0));
+  }
+
+  @Test
+  void testProcessReturnsUpperBound() {
+    assertEquals("0.1", action.process("0.05", config));
+    assertEquals("1.0", action.process("1", config));
+    assertEquals("10.0", action.process("3.5", config));
+    assertEquals("+Inf", action.process("11", config));
+  }
+
+  @Test
+  void testProcessWithNonNumericValue() {
+    assertNull(action.process("fast", config));
+  }
+
+  @Test
+  void testCompileWithUnsortedBuckets() {
+    config.setBuckets(List.of(1.0, 0.5));
+    assertThrows(IllegalArgumentException.class, () -> action.compile(config));
+  }
+}
@@ -21,10 +21,14 @@ import static org.mockito.Mockito.*;
 import io.prometheus.client.CollectorRegistry;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.logex.exporter.config.LabelConfig;
 import org.logex.exporter.config.MetricConfig;
+import org.logex.exporter.log.EventSchema;
+import org.logex.exporter.log.LogEvent;
 
 class CounterHandlerTest {
 
@@ -67,4 +71,35 @@ class CounterHandlerTest {
     // Then
     assertEquals(5.0, registry.getSampleValue("test_counter_total"));
   }
+
+  @Test
+  void handle_shouldReadBoundEventsBySlot() {
+    // Given
+    LabelConfig label = new LabelConfig();
+    label.setName("method");
+    label.setSourceField("http_method");
+    label.setAction("none");
+    when(mockConfig.getLabels()).thenReturn(List.of(label));
+    when(mockConfig.getValueField()).thenReturn("bytes");
+    CollectorRegistry labelled = new CollectorRegistry();
+    CounterHandler handler = new CounterHandler(mockConfig, labelled);
+    EventSchema schema = new EventSchema();
+    handler.bind(schema);
+    LogEvent event = new LogEvent().reset(schema);
+    event.set(schema.indexOf("http_method"), "GET");
+    event.set(schema.indexOf("bytes"), "512");
+
+    // When
+    handler.handle(event);
+    handler.handle(event.reset(schema));
+
+    // Then
+    assertEquals(
+        512.0,
+        labelled.getSampleValue(
+            "test_counter_total", new String[] {"method"}, new String[] {"GET"}));
+    assertEquals(
+        1.0,
+        labelled.getSampleValue("test_counter_total", new String[] {"method"}, new String[] {""}));
+  }
 }
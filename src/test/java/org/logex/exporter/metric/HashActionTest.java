@@ -0,0 +1,70 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.metric;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import org.logex.exporter.config.LabelConfig;
+
+class HashActionTest {
+
+  private final HashAction action = new HashAction();
+
+  @Test
+  void testProcessReturnsHexHash() {
+    LabelConfig config = new LabelConfig();
+    String hash = action.process("alice", config);
+
+    assertEquals(8, hash.length());
+    assertEquals(hash, action.process("alice", config));
+    assertNotEquals(hash, action.process("bob", config));
+  }
+
+  @Test
+  void testProcessMatchesFnv1aOfUtf8Bytes() {
+    LabelConfig config = new LabelConfig();
+
+    assertEquals("e40c292c", action.process("a", config));
+    assertEquals("bf9cf968", action.process("foobar", config));
+    for (String value : new String[] {"straße", "✓ ok", "😀", "\ud800x"}) {
+      int expected = 0x811c9dc5;
+      for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+        expected = (expected ^ (b & 0xff)) * 0x01000193;
+      }
+      assertEquals(String.format("%08x", expected), action.process(value, config), value);
+    }
+  }
+
+  @Test
+  void testProcessWithModulo() {
+    LabelConfig config = new LabelConfig();
+    config.setHashModulo(4);
+
+    for (String user : new String[] {"alice", "bob", "carol", "dave"}) {
+      int bucket = Integer.parseInt(action.process(user, config));
+      assertTrue(bucket >= 0 && bucket < 4);
+    }
+  }
+
+  @Test
+  void testCompileWithInvalidModulo() {
+    LabelConfig config = new LabelConfig();
+    config.setHashModulo(0);
+    assertThrows(IllegalArgumentException.class, () -> action.compile(config));
+  }
+}
@@ -16,7 +16,13 @@
 package org.logex.exporter.metric;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.logex.exporter.config.LabelConfig;
@@ -77,4 +83,33 @@ public class JavaScriptActionTest {
     String result = javaScriptAction.process("test", config);
     assertEquals("123", result);
   }
+
+  @Test
+  public void testProcess_shouldReuseEvaluatedFunction() {
+    LabelConfig config = new LabelConfig();
+    config.setScript("globalThis.calls = (globalThis.calls || 0) + 1; return value + calls;");
+
+    assertEquals("a1", javaScriptAction.process("a", config));
+    assertEquals("b2", javaScriptAction.process("b", config));
+  }
+
+  @Test
+  public void testProcess_fromConcurrentThreads_shouldUseOneContextPerCall() throws Exception {
+    LabelConfig config = new LabelConfig();
+    config.setScript("return value.toUpperCase();");
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<String>> results = new ArrayList<>();
+      for (int i = 0; i < 64; i++) {
+        String value = "value" + i;
+        results.add(executor.submit(() -> javaScriptAction.process(value, config)));
+      }
+      for (int i = 0; i < 64; i++) {
+        assertEquals("VALUE" + i, results.get(i).get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertTrue(javaScriptAction.getIdleContexts() <= JavaScriptAction.MAX_IDLE_CONTEXTS);
+  }
 }
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.metric;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.logex.exporter.config.LabelConfig;
+
+class LabelChainTest {
+
+  private static LabelConfig step(String action) {
+    LabelConfig step = new LabelConfig();
+    step.setAction(action);
+    return step;
+  }
+
+  private static LabelConfig label(LabelConfig... steps) {
+    LabelConfig label = new LabelConfig();
+    label.setName("class");
+    label.setSourceField("class");
+    label.setSteps(List.of(steps));
+    return label;
+  }
+
+  @Test
+  void compile_shouldRunStepsInSequence() {
+    LabelConfig regex = step("regex_replace");
+    regex.setRegex("^.*\\.");
+    regex.setReplacement("");
+    LabelConfig truncate = step("truncate");
+    truncate.setMaxLength(8);
+    LabelConfig lookup = step("lookup");
+    lookup.setTable(Map.of("userserv", "users"));
+
+    LabelTransform transform =
+        LabelChain.compile(label(regex, step("lowercase"), truncate, lookup));
+
+    assertEquals("users", transform.apply("com.example.UserService"));
+    assertEquals("orderser", transform.apply("com.example.OrderService"));
+    assertNull(transform.apply(null));
+  }
+
+  @Test
+  void compile_shouldStopWhenStepHasNoOutput() {
+    LabelConfig bucket = step("bucket");
+    bucket.setBuckets(List.of(100.0));
+
+    LabelTransform transform = LabelChain.compile(label(bucket, step("lowercase")));
+
+    assertEquals("+inf", transform.apply("250"));
+    assertNull(transform.apply("slow"));
+  }
+
+  @Test
+  void compile_shouldRejectStepsThatDoNothing() {
+    IllegalArgumentException missingAction =
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> LabelChain.compile(label(step("lowercase"), step(null))));
+    assertEquals("Step 2 of label class does nothing", missingAction.getMessage());
+    assertThrows(
+        IllegalArgumentException.class, () -> LabelChain.compile(label(step("regex_replace"))));
+    assertThrows(IllegalArgumentException.class, () -> LabelChain.compile(label(step("lowcase"))));
+  }
+
+  @Test
+  void compile_shouldNotRenameSteps() {
+    LabelConfig truncate = step("truncate");
+
+    IllegalArgumentException e =
+        assertThrows(IllegalArgumentException.class, () -> LabelChain.compile(label(truncate)));
+    assertTrue(e.getMessage().startsWith("Step 1 of label class: "), e.getMessage());
+    assertNull(truncate.getName());
+  }
+
+  @Test
+  void compile_shouldRejectScriptSteps() {
+    LabelConfig script = step("js");
+    script.setScript("return value;");
+
+    assertThrows(IllegalArgumentException.class, () -> LabelChain.compile(label(script)));
+  }
+
+  @Test
+  void compile_shouldRejectActionAlongsideSteps() {
+    LabelConfig label = label(step("lowercase"));
+    label.setAction("lowercase");
+
+    assertThrows(IllegalArgumentException.class, () -> LabelChain.compile(label));
+  }
+}
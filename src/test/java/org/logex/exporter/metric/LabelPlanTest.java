@@ -0,0 +1,148 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.metric;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.logex.exporter.config.LabelConfig;
+import org.logex.exporter.config.MetricConfig;
+import org.logex.exporter.log.EventSchema;
+import org.logex.exporter.log.LogEvent;
+
+class LabelPlanTest {
+
+  private static LabelConfig label(String sourceField, String action) {
+    LabelConfig labelConfig = new LabelConfig();
+    labelConfig.setName(sourceField);
+    labelConfig.setSourceField(sourceField);
+    labelConfig.setAction(action);
+    return labelConfig;
+  }
+
+  private static MetricConfig metric(LabelConfig... labels) {
+    MetricConfig metricConfig = new MetricConfig();
+    metricConfig.setLabels(List.of(labels));
+    return metricConfig;
+  }
+
+  @Test
+  void labels_shouldApplyActionsAndDefaults() {
+    LabelConfig status = label("status", "regex_replace");
+    status.setRegex("^(\\d)\\d\\d$");
+    status.setReplacement("$1xx");
+    LabelConfig method = label("method", null);
+    method.setDefaultValue("GET");
+    LabelPlan plan = LabelPlan.compile(metric(status, method));
+
+    assertFalse(plan.isBound());
+    assertEquals(List.of("5xx", "GET"), plan.labels(Map.of("status", "503")));
+  }
+
+  @Test
+  void labels_shouldReadBoundEventsBySlot() {
+    EventSchema schema = new EventSchema();
+    schema.slot("unrelated");
+    LabelPlan plan = LabelPlan.compile(metric(label("user", null), label("missing", null)));
+
+    LabelPlan bound = plan.bind(schema);
+    LogEvent event = new LogEvent().reset(schema);
+    event.set(schema.indexOf("user"), "alice");
+
+    assertTrue(bound.isBound());
+    assertFalse(plan.isBound());
+    assertEquals(List.of("alice", ""), bound.labels(event));
+  }
+
+  @Test
+  void compile_shouldMemoizeExpensiveActionsByDefault() {
+    LabelConfig thread = label("thread", "js");
+    thread.setScript("return value.toUpperCase();");
+    LabelConfig status = label("status", "regex_replace");
+    status.setRegex("x");
+    status.setReplacement("y");
+    LabelPlan plan = LabelPlan.compile(metric(thread, status));
+
+    plan.labels(Map.of("thread", "main", "status", "x"));
+    plan.labels(Map.of("thread", "main", "status", "x"));
+
+    assertEquals(1, plan.getMemos().size());
+    LabelMemo memo = plan.getMemos().get(0);
+    assertEquals("thread", memo.getLabel());
+    assertEquals(1, memo.getHits());
+    assertEquals(1, memo.getMisses());
+  }
+
+  @Test
+  void labels_shouldNotMemoizeFailedScripts() {
+    LabelConfig thread = label("thread", "js");
+    thread.setScript(
+        "if (!globalThis.failed) { globalThis.failed = true; throw new Error('transient'); }"
+            + " return value.toUpperCase();");
+    LabelPlan plan = LabelPlan.compile(metric(thread));
+
+    assertEquals(List.of("main"), plan.labels(Map.of("thread", "main")));
+    assertEquals(List.of("MAIN"), plan.labels(Map.of("thread", "main")));
+    assertEquals(List.of("MAIN"), plan.labels(Map.of("thread", "main")));
+    assertEquals(1, plan.getMemos().get(0).getHits());
+  }
+
+  @Test
+  void compile_shouldFollowMemoSize() {
+    LabelConfig thread = label("thread", "js");
+    thread.setScript("return value;");
+    thread.setMemoSize(0);
+    LabelConfig status = label("status", "regex_replace");
+    status.setRegex("x");
+    status.setReplacement("y");
+    status.setMemoSize(16);
+
+    List<LabelMemo> memos = LabelPlan.compile(metric(thread, status)).getMemos();
+
+    assertEquals(1, memos.size());
+    assertEquals("status", memos.get(0).getLabel());
+  }
+
+  @Test
+  void compile_shouldRejectUnknownAction() {
+    IllegalArgumentException e =
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> LabelPlan.compile(metric(label("status", "regex_replce"))));
+    assertTrue(e.getMessage().contains("regex_replce"));
+  }
+
+  @Test
+  void compile_shouldRejectInvalidRegex() {
+    LabelConfig status = label("status", "regex_replace");
+    status.setRegex("(unclosed");
+    status.setReplacement("x");
+
+    IllegalArgumentException e =
+        assertThrows(IllegalArgumentException.class, () -> LabelPlan.compile(metric(status)));
+    assertTrue(e.getMessage().contains("status"));
+  }
+
+  @Test
+  void compile_shouldRejectInvalidScript() {
+    LabelConfig user = label("user", "js");
+    user.setScript("return value.;");
+
+    assertThrows(IllegalArgumentException.class, () -> LabelPlan.compile(metric(user)));
+  }
+}
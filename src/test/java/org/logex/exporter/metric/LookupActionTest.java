@@ -0,0 +1,52 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.metric;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.logex.exporter.config.LabelConfig;
+
+class LookupActionTest {
+
+  private LookupAction action;
+  private LabelConfig config;
+
+  @BeforeEach
+  void setUp() {
+    action = new LookupAction();
+    config = new LabelConfig();
+    config.setTable(Map.of("WARN", "warning", "ERR", "error"));
+  }
+
+  @Test
+  void testProcessReturnsTableEntry() {
+    assertEquals("warning", action.process("WARN", config));
+  }
+
+  @Test
+  void testProcessKeepsValueMissingFromTable() {
+    assertEquals("INFO", action.process("INFO", config));
+  }
+
+  @Test
+  void testProcessWithLookupDefault() {
+    config.setLookupDefault("other");
+    assertEquals("other", action.process("INFO", config));
+  }
+}
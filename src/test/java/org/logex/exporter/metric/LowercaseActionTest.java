@@ -0,0 +1,59 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.metric;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.logex.exporter.config.LabelConfig;
+
+class LowercaseActionTest {
+
+  private final LowercaseAction action = new LowercaseAction();
+
+  @Test
+  void testProcessLowercasesValue() {
+    assertEquals("error", action.process("ERROR", new LabelConfig()));
+  }
+
+  @Test
+  void testProcessLowercasesSupplementaryAndContextualCharacters() {
+    assertEquals("𐐨", action.process("𐐀", new LabelConfig()));
+    assertEquals("οδος", action.process("ΟΔΟΣ", new LabelConfig()));
+  }
+
+  @Test
+  void testCompileLowercasesAsciiCharSequence() {
+    StringBuilder out = new StringBuilder("label=");
+
+    assertTrue(action.compile(new LabelConfig()).apply(new StringBuilder("GET /Index-2"), out));
+    assertEquals("label=get /index-2", out.toString());
+  }
+
+  @Test
+  void testCompileConvertsWholeValueOnceNonAsciiCharacterIsFound() {
+    StringBuilder out = new StringBuilder("label=");
+
+    assertTrue(action.compile(new LabelConfig()).apply(new StringBuilder("ABC ΟΔΟΣ"), out));
+    assertEquals("label=abc οδος", out.toString());
+  }
+
+  @Test
+  void testProcessReturnsLowercaseValueAsIs() {
+    String value = "info";
+    assertSame(value, action.process(value, new LabelConfig()));
+  }
+}
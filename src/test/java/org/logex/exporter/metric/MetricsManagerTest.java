@@ -22,9 +22,12 @@ import io.prometheus.client.CollectorRegistry;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.logex.exporter.config.AppConfig;
+import org.logex.exporter.config.LabelConfig;
 import org.logex.exporter.config.MetricConfig;
 import org.logex.exporter.log.LogHandler;
 import org.logex.exporter.log.LogTailerManager;
@@ -50,6 +53,8 @@ class MetricsManagerTest {
     metricConfig.setName("test_counter");
     metricConfig.setHelp("test help");
     metricConfig.setLabels(new java.util.ArrayList<>());
+    metricConfig.setRegexEngine("linear");
+    metricConfig.setValueField("bytes");
 
     when(mockAppConfig.getMetrics()).thenReturn(Collections.singletonList(metricConfig));
 
@@ -57,7 +62,38 @@ class MetricsManagerTest {
     metricsManager = new MetricsManager(mockAppConfig, mockLogTailerManager);
 
     // Then
-    verify(mockLogTailerManager, times(1)).register(eq("test_match"), any(LogHandler.class));
+    verify(mockLogTailerManager, times(1))
+        .register(
+            isNull(),
+            eq("test_match"),
+            eq("linear"),
+            eq(Set.of("path", "bytes")),
+            isNull(),
+            any(LogHandler.class));
+  }
+
+  @Test
+  void constructor_shouldLeaveLabelsWithoutSourceFieldOutOfUsedFields() {
+    // Given
+    LabelConfig constant = new LabelConfig();
+    constant.setName("env");
+    constant.setDefaultValue("prod");
+    MetricConfig metricConfig = new MetricConfig();
+    metricConfig.setFormat("json");
+    metricConfig.setType("counter");
+    metricConfig.setName("test_counter");
+    metricConfig.setHelp("test help");
+    metricConfig.setLabels(new java.util.ArrayList<>(List.of(constant)));
+
+    when(mockAppConfig.getMetrics()).thenReturn(Collections.singletonList(metricConfig));
+
+    // When
+    metricsManager = new MetricsManager(mockAppConfig, mockLogTailerManager);
+
+    // Then
+    verify(mockLogTailerManager, times(1))
+        .register(
+            eq("json"), isNull(), isNull(), eq(Set.of("path")), isNull(), any(LogHandler.class));
   }
 
   @Test
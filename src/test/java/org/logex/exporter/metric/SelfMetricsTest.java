@@ -0,0 +1,83 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.metric;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import io.prometheus.client.CollectorRegistry;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.logex.exporter.config.PipelineConfig;
+import org.logex.exporter.log.LineDispatcher;
+import org.logex.exporter.log.LinePipeline;
+import org.logex.exporter.log.LogTailerManager;
+
+class SelfMetricsTest {
+
+  @Test
+  void collect_shouldExportPipelineStages() {
+    LogTailerManager tailerManager = mock(LogTailerManager.class);
+    PipelineConfig config = new PipelineConfig();
+    config.getParse().setWorkers(1);
+    when(tailerManager.getPipeline())
+        .thenReturn(new LinePipeline(new LineDispatcher(Map.of(), Map.of()), config));
+    CollectorRegistry registry = new CollectorRegistry();
+
+    new SelfMetrics(tailerManager).register(registry);
+
+    assertEquals(
+        0.0,
+        registry.getSampleValue(
+            "logex_pipeline_queue_depth", new String[] {"stage"}, new String[] {"parse"}));
+    assertEquals(
+        0.0,
+        registry.getSampleValue(
+            "logex_pipeline_dropped_total",
+            new String[] {"stage", "policy"},
+            new String[] {"aggregate", "block"}));
+  }
+
+  @Test
+  void collect_shouldExportLabelMemos() {
+    LabelMemo memo = new LabelMemo("lines_total", "thread", 1, String::toUpperCase);
+    memo.apply("main");
+    memo.apply("main");
+    memo.apply("worker");
+    CollectorRegistry registry = new CollectorRegistry();
+
+    new SelfMetrics(mock(LogTailerManager.class), List.of(memo)).register(registry);
+
+    String[] labelNames = {"metric", "label"};
+    String[] labelValues = {"lines_total", "thread"};
+    assertEquals(
+        1.0, registry.getSampleValue("logex_label_memo_hits_total", labelNames, labelValues));
+    assertEquals(
+        2.0, registry.getSampleValue("logex_label_memo_misses_total", labelNames, labelValues));
+    assertEquals(
+        1.0, registry.getSampleValue("logex_label_memo_evictions_total", labelNames, labelValues));
+  }
+
+  @Test
+  void collect_shouldExportNothingWithoutPipeline() {
+    CollectorRegistry registry = new CollectorRegistry();
+
+    new SelfMetrics(mock(LogTailerManager.class)).register(registry);
+
+    assertFalse(registry.metricFamilySamples().hasMoreElements());
+  }
+}
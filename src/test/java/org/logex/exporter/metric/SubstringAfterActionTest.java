@@ -0,0 +1,50 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.metric;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.logex.exporter.config.LabelConfig;
+
+class SubstringAfterActionTest {
+
+  private SubstringAfterAction action;
+  private LabelConfig config;
+
+  @BeforeEach
+  void setUp() {
+    action = new SubstringAfterAction();
+    config = new LabelConfig();
+    config.setDelimiter("/");
+  }
+
+  @Test
+  void testProcessWithDelimiter() {
+    assertEquals("api/users", action.process("v1/api/users", config));
+  }
+
+  @Test
+  void testProcessWithTrailingDelimiter() {
+    assertEquals("", action.process("v1/", config));
+  }
+
+  @Test
+  void testProcessWithoutDelimiterKeepsValue() {
+    assertEquals("users", action.process("users", config));
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.metric;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.logex.exporter.config.LabelConfig;
+
+class SubstringBeforeActionTest {
+
+  private SubstringBeforeAction action;
+  private LabelConfig config;
+
+  @BeforeEach
+  void setUp() {
+    action = new SubstringBeforeAction();
+    config = new LabelConfig();
+    config.setDelimiter("::");
+  }
+
+  @Test
+  void testProcessWithDelimiter() {
+    assertEquals("pool-1", action.process("pool-1::thread-2::x", config));
+  }
+
+  @Test
+  void testProcessWithoutDelimiterKeepsValue() {
+    String value = "main";
+    assertSame(value, action.process(value, config));
+  }
+
+  @Test
+  void testProcessWithNullValue() {
+    assertNull(action.process(null, config));
+  }
+
+  @Test
+  void testCompileWithoutDelimiter() {
+    config.setDelimiter(null);
+    assertThrows(IllegalArgumentException.class, () -> action.compile(config));
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.metric;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.logex.exporter.config.LabelConfig;
+
+class TruncateActionTest {
+
+  private TruncateAction action;
+  private LabelConfig config;
+
+  @BeforeEach
+  void setUp() {
+    action = new TruncateAction();
+    config = new LabelConfig();
+    config.setMaxLength(4);
+  }
+
+  @Test
+  void testProcessTruncatesLongValue() {
+    assertEquals("abcd", action.process("abcdef", config));
+  }
+
+  @Test
+  void testProcessKeepsShortValue() {
+    assertEquals("ab", action.process("ab", config));
+  }
+
+  @Test
+  void testProcessDoesNotSplitSurrogatePair() {
+    assertEquals("abc", action.process("abc😀", config));
+  }
+
+  @Test
+  void testCompileWithoutMaxLength() {
+    config.setMaxLength(null);
+    assertThrows(IllegalArgumentException.class, () -> action.compile(config));
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.metric;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.logex.exporter.config.LabelConfig;
+
+class UppercaseActionTest {
+
+  private final UppercaseAction action = new UppercaseAction();
+
+  @Test
+  void testProcessUppercasesValue() {
+    assertEquals("ERROR", action.process("error", new LabelConfig()));
+  }
+
+  @Test
+  void testProcessUppercasesSupplementaryAndContextualCharacters() {
+    assertEquals("𐐀", action.process("𐐨", new LabelConfig()));
+    assertEquals("STRASSE", action.process("straße", new LabelConfig()));
+  }
+
+  @Test
+  void testCompileUppercasesAsciiCharSequence() {
+    StringBuilder out = new StringBuilder("label=");
+
+    assertTrue(action.compile(new LabelConfig()).apply(new StringBuilder("get /Index-2"), out));
+    assertEquals("label=GET /INDEX-2", out.toString());
+  }
+
+  @Test
+  void testCompileConvertsWholeValueOnceNonAsciiCharacterIsFound() {
+    StringBuilder out = new StringBuilder("label=");
+
+    assertTrue(action.compile(new LabelConfig()).apply(new StringBuilder("abc straße"), out));
+    assertEquals("label=ABC STRASSE", out.toString());
+  }
+
+  @Test
+  void testProcessReturnsUppercaseValueAsIs() {
+    String value = "INFO";
+    assertSame(value, action.process(value, new LabelConfig()));
+  }
+}
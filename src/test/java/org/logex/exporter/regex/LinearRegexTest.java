@@ -0,0 +1,115 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.regex;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+
+class LinearRegexTest {
+
+  private static int[] jdkFind(Pattern pattern, CharSequence input) {
+    Matcher matcher = pattern.matcher(input);
+    if (!matcher.find()) {
+      return null;
+    }
+    int[] slots = new int[2 * matcher.groupCount() + 2];
+    for (int i = 0; i <= matcher.groupCount(); i++) {
+      slots[2 * i] = matcher.start(i);
+      slots[2 * i + 1] = matcher.end(i);
+    }
+    return slots;
+  }
+
+  @Test
+  void find_shouldCaptureWhatJavaRegexCaptures() {
+    List<String> regexes =
+        List.of(
+            "(a|ab)(c|bcd)(d*)",
+            "(?<key>\\w+)=(?<value>[^ ]*)",
+            "\\[(.*?)\\] (.*)",
+            "(a+?)(a*)b?",
+            "x{2,3}?(y)?",
+            "(?:(a)|b)+",
+            "^(\\d{1,3})\\.(\\d{1,3})$",
+            "\\b(\\w+)\\b \\1?",
+            "(?<![0-9])(\\d+)(?!\\.)",
+            "([^\\s\\]]+)\\s*$",
+            "\\Bb\\B|\\Ac|d\\z|e\\Z",
+            "[\\x41-\\x43\\u00e9\\t]+",
+            "(é|ü)\\.",
+            "()|a",
+            "(?>\\d\\d){1,2}(?!<[0-9])",
+            "(?>a+)a?b|[xy]*+\\d",
+            "(?<=a\\d)(b)",
+            "\\b(?=\\d\\.)\\d");
+    Random random = new Random(42);
+    String alphabet = "aabbcdxyé=. 123[]\tAB\n";
+    for (String regex : regexes) {
+      Pattern pattern = Pattern.compile(regex);
+      LinearRegex linear;
+      try {
+        linear = LinearRegex.compile(regex);
+      } catch (UnsupportedRegexException e) {
+        assertTrue(regex.contains("\\1"), regex);
+        continue;
+      }
+      for (int n = 0; n < 3000; n++) {
+        StringBuilder input = new StringBuilder();
+        for (int i = random.nextInt(10); i > 0; i--) {
+          input.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        assertArrayEquals(
+            jdkFind(pattern, input),
+            linear.find(input),
+            () -> regex + " on " + input.toString().replace("\n", "\\n"));
+      }
+    }
+  }
+
+  @Test
+  void compile_shouldExposeNamedGroups() {
+    LinearRegex regex = LinearRegex.compile("(?<method>[A-Z]+) (?:/(?<path>\\S*))");
+
+    assertEquals(2, regex.groupCount());
+    assertEquals(Map.of("method", 1, "path", 2), regex.groupNames());
+    assertEquals(List.of(0, 8, 0, 3, 5, 8), Arrays.stream(regex.find("GET /abc")).boxed().toList());
+  }
+
+  @Test
+  void compile_shouldRejectConstructsThatBacktrack() {
+    for (String regex :
+        List.of("(a)\\1", "(?>a|ab)c", "(ab)++", "(?i)a", "(?=a+)a", "\\p{Alpha}")) {
+      assertThrows(UnsupportedRegexException.class, () -> LinearRegex.compile(regex), regex);
+    }
+  }
+
+  @Test
+  void find_shouldStayLinearOnAdversarialInput() {
+    LinearRegex regex = LinearRegex.compile("^(.*?,){11}P");
+    String line = "1,2,3,4,5,6,7,8,9,10,11,12".repeat(3000);
+
+    long start = System.nanoTime();
+    assertNull(regex.find(line));
+    assertTrue(System.nanoTime() - start < 5_000_000_000L);
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2025 loyispa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.logex.exporter.regex;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.krakens.grok.api.GrokCompiler;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+
+class RegexSetTest {
+
+  private static List<Integer> matches(RegexSet set, String input) {
+    long[] matched = new long[set.words()];
+    set.match(input, matched);
+    List<Integer> indexes = new ArrayList<>();
+    for (int i = 0; i < matched.length * 64; i++) {
+      if ((matched[i >>> 6] & 1L << i) != 0) {
+        indexes.add(i);
+      }
+    }
+    return indexes;
+  }
+
+  @Test
+  void match_shouldReportEveryMatchingExpressionInOnePass() {
+    RegexSet set =
+        new RegexSet(
+            List.of(
+                "level=(?<level>ERROR|WARN)",
+                "took (?<ms>\\d+)ms",
+                "^GET /[a-z]+ HTTP/1\\.[01]$",
+                "user=(?<user>\\w+)"));
+
+    assertEquals(List.of(0, 1), matches(set, "level=ERROR took 12ms"));
+    assertEquals(List.of(2), matches(set, "GET /index HTTP/1.1"));
+    assertEquals(List.of(3), matches(set, "login user=alice"));
+    assertEquals(List.of(), matches(set, "level=INFO took ms"));
+  }
+
+  @Test
+  void match_shouldAlwaysReportUnsupportedExpressions() {
+    RegexSet set = new RegexSet(List.of("(?i)error", "warn"));
+
+    assertFalse(set.isSupported(0));
+    assertTrue(set.isSupported(1));
+    assertEquals(List.of(0), matches(set, "nothing here"));
+    assertEquals(List.of(0, 1), matches(set, "warn"));
+  }
+
+  @Test
+  void match_shouldReportEveryExpressionThatJavaRegexMatches() {
+    List<String> regexes =
+        List.of(
+            "\\bcat\\b",
+            "(?<![0-9])42(?![0-9])",
+            "a{2,3}b?c+",
+            "(?>x+|y)z",
+            "([ab])\\1",
+            "[^\\s=]+=\"[^\"]*\"",
+            "\\[(?<thread>.*?)\\] (?<level>[A-Z]+)",
+            "\\x41\\u00e9\\t",
+            "[\\w&&[^_]]",
+            "é+ü",
+            "^$");
+    RegexSet set = new RegexSet(regexes);
+    Random random = new Random(42);
+    String alphabet = "abcxyz 42=\"[]_\tAéüWARN.";
+    for (int n = 0; n < 5000; n++) {
+      StringBuilder input = new StringBuilder();
+      for (int i = random.nextInt(12); i > 0; i--) {
+        input.append(alphabet.charAt(random.nextInt(alphabet.length())));
+      }
+      List<Integer> matched = matches(set, input.toString());
+      for (int i = 0; i < regexes.size(); i++) {
+        if (Pattern.compile(regexes.get(i)).matcher(input).find()) {
+          assertTrue(matched.contains(i), regexes.get(i) + " on " + input);
+        }
+      }
+    }
+  }
+
+  @Test
+  void match_shouldRunGrokPatterns() {
+    GrokCompiler compiler = GrokCompiler.newInstance();
+    compiler.registerDefaultPatterns();
+    RegexSet set =
+        new RegexSet(
+            List.of(
+                compiler.compile("%{COMBINEDAPACHELOG}").getNamedRegex(),
+                compiler.compile("%{SYSLOGBASE} %{GREEDYDATA:message}").getNamedRegex()));
+
+    assertTrue(set.isSupported(0));
+    assertTrue(set.isSupported(1));
+    assertEquals(
+        List.of(0),
+        matches(
+            set,
+            "127.0.0.1 - frank [10/Oct/2000:13:55:36 -0700] \"GET /a.gif HTTP/1.0\" 200 2326"
+                + " \"http://example.com/\" \"Mozilla/4.08\""));
+    assertEquals(
+        List.of(1), matches(set, "Oct 11 22:14:15 host sshd[42]: Accepted password for bob"));
+  }
+
+  @Test
+  void match_shouldBoundCachedStates() {
+    RegexSet set = new RegexSet(List.of("a.{12}b", "[a-z]*x[0-9]{10}y"));
+    Random random = new Random(7);
+    char[] line = new char[4096];
+    for (int n = 0; n < 50; n++) {
+      for (int i = 0; i < line.length; i++) {
+        line[i] = "abx0123456789y".charAt(random.nextInt(14));
+      }
+      matches(set, new String(line));
+      assertTrue(set.states() <= RegexSet.MAX_STATES);
+    }
+  }
+}